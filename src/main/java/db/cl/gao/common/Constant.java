@@ -38,6 +38,10 @@ public class Constant {
 
     public static final String COLUMN_NAME = "COLUMN_NAME";
 
+    public static final String COLUMN_TYPE = "COLUMN_TYPE";
+
+    public static final String COLUMN_KEY = "COLUMN_KEY";
+
     public static final String ERRORS = "errors";
 
 
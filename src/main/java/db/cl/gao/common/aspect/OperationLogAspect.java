@@ -24,6 +24,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.servlet.http.HttpServletRequest;
 import java.lang.reflect.Method;
@@ -246,8 +247,8 @@ public class OperationLogAspect {
         ResponseEntity<?> response = (ResponseEntity<?>) result;
         Object body = response.getBody();
 
-        // 检查是否是文件资源
-        return body instanceof Resource || body != null && (body.getClass().getSimpleName().contains("Resource") || body.getClass().getSimpleName().contains("InputStream"));
+        // 检查是否是文件资源或流式响应
+        return body instanceof Resource || body instanceof StreamingResponseBody || body != null && (body.getClass().getSimpleName().contains("Resource") || body.getClass().getSimpleName().contains("InputStream"));
     }
 
     /**
@@ -0,0 +1,12 @@
+package db.cl.gao.common.enums;
+
+/**
+ * 导入数据校验不通过的类别
+ */
+public enum ColumnViolation {
+
+    NULL,       // 非空列为空
+    TYPE,       // 类型不合法
+    LENGTH,     // 超出长度
+    ENUM        // 不在ENUM/SET取值范围内
+}
@@ -0,0 +1,43 @@
+package db.cl.gao.common.enums;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+import lombok.Getter;
+
+@SuppressWarnings("unused")
+@Getter
+public enum ExportCompression {
+
+    NONE("", "application/octet-stream"),
+    GZIP("gz", "application/gzip"),
+    ZIP("zip", "application/zip");
+
+    private final String extension;
+
+    private final String contentType;
+
+    ExportCompression(String extension, String contentType) {
+        this.extension = extension;
+        this.contentType = contentType;
+    }
+
+    // 序列化时使用小写
+    @JsonValue
+    public String getValue() {
+        return this.name().toLowerCase();
+    }
+
+    // 反序列化时支持大小写不敏感
+    @JsonCreator
+    public static ExportCompression fromValue(String value) {
+        if (value == null || value.isEmpty()) {
+            return NONE;
+        }
+        for (ExportCompression compression : values()) {
+            if (compression.name().equalsIgnoreCase(value)) {
+                return compression;
+            }
+        }
+        throw new IllegalArgumentException("无效的压缩格式: " + value);
+    }
+}
@@ -11,7 +11,11 @@ public enum ExportFormat {
     EXCEL("xlsx"),
     CSV("csv"),
     JSON("json"),
-    SQL("sql");
+    // 每行一个JSON对象，便于下游按行并行加载
+    NDJSON("ndjson"),
+    SQL("sql"),
+    // Arrow IPC文件格式，供pandas / Spark等分析工具直接加载
+    ARROW("arrow");
 
     private final String extension;
 
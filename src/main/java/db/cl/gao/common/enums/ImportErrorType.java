@@ -0,0 +1,36 @@
+package db.cl.gao.common.enums;
+
+import java.sql.SQLException;
+
+/**
+ * 导入失败行的错误类别
+ */
+public enum ImportErrorType {
+
+    CONVERSION,     // 值无法按列类型转换
+    DUPLICATE_KEY,  // 主键或唯一键冲突
+    CONSTRAINT,     // 非空、外键等其他约束不满足
+    DATA,           // 数据超长、超出范围或格式不正确
+    UNSAFE_SQL,     // 不安全的SQL语句，未执行
+    DATABASE;       // 其他数据库错误
+
+    private static final int MYSQL_DUPLICATE_ENTRY = 1062;
+    private static final String DUPLICATE_KEY_STATE = "23505";
+
+    /**
+     * 按SQLState和MySQL错误码归类数据库错误
+     */
+    public static ImportErrorType of(SQLException e) {
+        String state = e.getSQLState();
+        if (e.getErrorCode() == MYSQL_DUPLICATE_ENTRY || DUPLICATE_KEY_STATE.equals(state)) {
+            return DUPLICATE_KEY;
+        }
+        if (state != null && state.startsWith("23")) {
+            return CONSTRAINT;
+        }
+        if (state != null && state.startsWith("22")) {
+            return DATA;
+        }
+        return DATABASE;
+    }
+}
@@ -0,0 +1,11 @@
+package db.cl.gao.common.enums;
+
+/**
+ * 导入写入模式
+ */
+public enum ImportMode {
+
+    INSERT,     // 普通插入，键冲突的行计为错误
+    UPSERT,     // 键冲突时更新已有行（ON DUPLICATE KEY UPDATE）
+    IGNORE      // 键冲突时跳过（INSERT IGNORE）
+}
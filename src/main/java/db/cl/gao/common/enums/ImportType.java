@@ -0,0 +1,12 @@
+package db.cl.gao.common.enums;
+
+/**
+ * 导入文件类型
+ */
+public enum ImportType {
+
+    CSV,
+    EXCEL,
+    JSON,
+    SQL
+}
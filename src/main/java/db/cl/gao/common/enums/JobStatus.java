@@ -0,0 +1,17 @@
+package db.cl.gao.common.enums;
+
+/**
+ * 后台任务状态
+ */
+public enum JobStatus {
+
+    PENDING,    // 排队中
+    RUNNING,    // 执行中
+    COMPLETED,  // 已完成
+    FAILED,     // 失败
+    CANCELLED;  // 已取消
+
+    public boolean isFinished() {
+        return this == COMPLETED || this == FAILED || this == CANCELLED;
+    }
+}
@@ -0,0 +1,34 @@
+package db.cl.gao.common.param;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import db.cl.gao.common.enums.JobStatus;
+import lombok.Data;
+
+import java.util.Date;
+
+
+@Data
+public class ExportJobInfo {
+
+    private String jobId;
+    private String tableName;
+    private String fileName;
+    private JobStatus status;
+
+    // 已写出行数
+    private long rowsWritten;
+    // 已写出字节数（压缩后）
+    private long bytesWritten;
+    // 预估总行数，无法预估时为空
+    private Long estimatedRows;
+    private double rowsPerSecond;
+    // 预计剩余秒数，无法预估时为空
+    private Long etaSeconds;
+    private String message;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "GMT+8")
+    private Date createdAt;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "GMT+8")
+    private Date finishedAt;
+}
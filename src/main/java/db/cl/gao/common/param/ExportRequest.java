@@ -1,9 +1,13 @@
 package db.cl.gao.common.param;
 
+import db.cl.gao.common.enums.ExportCompression;
 import db.cl.gao.common.enums.ExportFormat;
 import lombok.Data;
 
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotBlank;
+import java.util.List;
 
 
 @Data
@@ -15,4 +19,65 @@ public class ExportRequest {
     private ExportFormat format = ExportFormat.EXCEL;
 
     private String whereClause;
+
+    /**
+     * 导出列，为空时导出全部列
+     */
+    private List<String> columns;
+
+    /**
+     * 排序列，按顺序组成排序键
+     */
+    private List<String> orderBy;
+
+    /**
+     * 是否按排序键降序
+     */
+    private boolean descending = false;
+
+    /**
+     * 键集分页：从该排序键之后开始导出，取值与orderBy一一对应，配合limit可将大表拆成可续导的分段
+     */
+    private List<Object> startAfter;
+
+    /**
+     * 最大导出行数，为空时不限制
+     */
+    @Min(value = 1, message = "导出行数不能小于1")
+    private Long limit;
+
+    /**
+     * 输出压缩方式，边生成边压缩
+     */
+    private ExportCompression compression = ExportCompression.NONE;
+
+    /**
+     * SQL导出：是否合并多行为一条INSERT
+     */
+    private boolean extendedInsert = false;
+
+    /**
+     * SQL导出：扩展插入时每条INSERT的最大行数
+     */
+    @Min(value = 1, message = "每条INSERT行数不能小于1")
+    private int insertBatchRows = 1000;
+
+    /**
+     * SQL导出：扩展插入时每条INSERT的最大长度（字符数），默认1MB
+     */
+    @Min(value = 1024, message = "每条INSERT长度不能小于1024")
+    private int insertMaxLength = 1024 * 1024;
+
+    /**
+     * 并行导出线程数，大于1时按整型主键区间拆分，在多个连接上并发读取；
+     * 指定排序、起始键或行数限制时按串行导出
+     */
+    @Min(value = 1, message = "并行度不能小于1")
+    @Max(value = 16, message = "并行度不能大于16")
+    private int parallelism = 1;
+
+    /**
+     * 并行导出时所有线程是否读取同一一致性快照（需要LOCK TABLES权限）
+     */
+    private boolean consistentSnapshot = false;
 }
@@ -0,0 +1,40 @@
+package db.cl.gao.common.param;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import db.cl.gao.common.enums.ImportType;
+import db.cl.gao.common.enums.JobStatus;
+import lombok.Data;
+
+import java.util.Date;
+
+
+/**
+ * 分段提交导入的检查点，每次提交后持久化，用于中断后续传
+ */
+@Data
+public class ImportCheckpoint {
+
+    private String checkpointId;
+    private String database;
+    private String tableName;
+    private ImportType importType;
+    private String fileName;
+    private ImportOptions options;
+    private JobStatus status;
+
+    // 最后一条已提交记录的位置：CSV为字符偏移，Excel为行号，SQL为语句序号；尚未提交时为-1
+    private long position = -1;
+    // 已提交的记录数（含失败行）
+    private long recordsDone;
+    private long importedRows;
+    private long errorRows;
+    private String message;
+    // 最近一次执行的错误报告ID，失败时报告同样保留，已提交分段的失败行续传时不会重新出现
+    private String errorReportId;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "GMT+8")
+    private Date createdAt;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "GMT+8")
+    private Date updatedAt;
+}
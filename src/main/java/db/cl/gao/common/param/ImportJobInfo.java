@@ -0,0 +1,39 @@
+package db.cl.gao.common.param;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import db.cl.gao.common.enums.ImportType;
+import db.cl.gao.common.enums.JobStatus;
+import lombok.Data;
+
+import java.util.Date;
+
+
+@Data
+public class ImportJobInfo {
+
+    private String jobId;
+    private ImportType importType;
+    private String tableName;
+    private String fileName;
+    private JobStatus status;
+
+    // 已读取的行数，SQL导入为语句数
+    private long rowsRead;
+    // 已写入的行数，未提交的部分在失败或取消时会回滚
+    private long rowsImported;
+    private long rowsFailed;
+    private double rowsPerSecond;
+    // 分段提交时的检查点ID，失败或取消后可据此续传
+    private String checkpointId;
+    // 错误报告ID，分段提交的导入失败时也可下载已提交分段的失败行
+    private String errorReportId;
+    // 完成后的导入结果
+    private ImportResult result;
+    private String message;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "GMT+8")
+    private Date createdAt;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "GMT+8")
+    private Date finishedAt;
+}
@@ -0,0 +1,78 @@
+package db.cl.gao.common.param;
+
+import db.cl.gao.common.enums.ImportMode;
+import lombok.Data;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import java.util.List;
+
+
+/**
+ * 导入选项
+ */
+@Data
+public class ImportOptions {
+
+    /**
+     * 每批executeBatch的行数
+     */
+    @Min(value = 1, message = "批量大小不能小于1")
+    @Max(value = 50000, message = "批量大小不能大于50000")
+    private int batchSize = 1000;
+
+    /**
+     * CSV导入：是否使用MySQL LOAD DATA LOCAL INFILE快速导入，不支持时自动回退为批量插入
+     */
+    private boolean bulkLoad = false;
+
+    /**
+     * 类型转换线程数
+     */
+    @Min(value = 1, message = "转换线程数不能小于1")
+    @Max(value = 16, message = "转换线程数不能大于16")
+    private int converterThreads = 2;
+
+    /**
+     * 写入线程数，每个线程使用独立连接；大于1时各连接分别提交，不再整体原子
+     */
+    @Min(value = 1, message = "写入线程数不能小于1")
+    @Max(value = 8, message = "写入线程数不能大于8")
+    private int writerThreads = 1;
+
+    /**
+     * 服务端目录CSV导入的解析线程数，文件按记录边界切分为相应数量的区段并行解析；按文件顺序写入时只使用一个
+     */
+    @Min(value = 1, message = "解析线程数不能小于1")
+    @Max(value = 16, message = "解析线程数不能大于16")
+    private int parserThreads = 4;
+
+    /**
+     * 是否按文件顺序写入，开启时只能使用一个写入线程
+     */
+    private boolean preserveOrder = false;
+
+    /**
+     * 分段提交的记录数，每提交一次记录检查点，中断后可续传；0表示整个导入在一个事务中完成。
+     * 分段提交时只使用一个写入线程，CSV不使用LOAD DATA
+     */
+    @Min(value = 0, message = "提交间隔不能小于0")
+    private int commitInterval = 0;
+
+    /**
+     * 写入模式：INSERT、UPSERT（键冲突时更新）或IGNORE（键冲突时跳过）
+     */
+    @NotNull(message = "导入模式不能为空")
+    private ImportMode mode = ImportMode.INSERT;
+
+    /**
+     * UPSERT的键列，不会被更新；为空时取表中COLUMN_KEY为PRI或UNI的列
+     */
+    private List<String> keyColumns;
+
+    /**
+     * UPSERT键冲突时更新的列；为空时更新文件中除键列外的所有列
+     */
+    private List<String> updateColumns;
+}
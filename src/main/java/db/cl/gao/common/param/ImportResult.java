@@ -1,5 +1,6 @@
 package db.cl.gao.common.param;
 
+import db.cl.gao.common.enums.ImportErrorType;
 import lombok.Data;
 
 import java.util.Map;
@@ -11,5 +12,12 @@ public class ImportResult {
     private int importedRows;
     private int errorRows;
     private long costTime;
+    // 前100条错误样例，全部失败行见错误报告
     private Map<String, Object> errorDetails;
+    // 各类错误的行数
+    private Map<ImportErrorType, Long> errorCounts;
+    // 错误报告ID，可下载包含全部失败行的CSV
+    private String errorReportId;
+    // 分段提交时的检查点ID，导入中断后可据此续传
+    private String checkpointId;
 }
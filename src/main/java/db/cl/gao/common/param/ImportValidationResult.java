@@ -0,0 +1,29 @@
+package db.cl.gao.common.param;
+
+import db.cl.gao.common.enums.ColumnViolation;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * 导入预校验结果，不写入目标表
+ */
+@Data
+public class ImportValidationResult {
+
+    private boolean valid;
+    private long totalRows;
+    private long errorRows;
+    private long costTime;
+    // 文件级问题，如缺少非空且无默认值的列
+    private List<String> fileErrors = new ArrayList<>();
+    // 表中不存在、导入时会被忽略的表头
+    private List<String> ignoredColumns = new ArrayList<>();
+    // 各列按类别统计的错误数
+    private Map<String, Map<ColumnViolation, Long>> columnErrors;
+    // 按行号排列的前若干个错误，row为表头后的数据行号（从1开始）
+    private List<Map<String, Object>> errorSamples;
+}
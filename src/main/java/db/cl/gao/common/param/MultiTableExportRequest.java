@@ -0,0 +1,57 @@
+package db.cl.gao.common.param;
+
+import db.cl.gao.common.enums.ExportFormat;
+import lombok.Data;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import java.util.List;
+
+
+@Data
+public class MultiTableExportRequest {
+
+    /**
+     * 要导出的表，allTables为true时忽略
+     */
+    private List<String> tableNames;
+
+    /**
+     * 是否导出当前数据库的所有表
+     */
+    private boolean allTables = false;
+
+    private ExportFormat format = ExportFormat.CSV;
+
+    /**
+     * SQL导出：是否合并多行为一条INSERT
+     */
+    private boolean extendedInsert = false;
+
+    @Min(value = 1, message = "每条INSERT行数不能小于1")
+    private int insertBatchRows = 1000;
+
+    @Min(value = 1024, message = "每条INSERT长度不能小于1024")
+    private int insertMaxLength = 1024 * 1024;
+
+    /**
+     * 单表并行导出线程数
+     */
+    @Min(value = 1, message = "并行度不能小于1")
+    @Max(value = 16, message = "并行度不能大于16")
+    private int parallelism = 1;
+
+    /**
+     * 生成单表导出请求
+     */
+    public ExportRequest toTableRequest(String tableName) {
+        ExportRequest request = new ExportRequest();
+        request.setTableName(tableName);
+        request.setFormat(format);
+        request.setExtendedInsert(extendedInsert);
+        request.setInsertBatchRows(insertBatchRows);
+        request.setInsertMaxLength(insertMaxLength);
+        request.setParallelism(parallelism);
+        return request;
+    }
+}
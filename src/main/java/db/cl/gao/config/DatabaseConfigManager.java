@@ -86,6 +86,11 @@ public class DatabaseConfigManager {
         dataSource.setMaxActive(config.getMaxActive() > 0 ? config.getMaxActive() : 20);
         dataSource.setTestWhileIdle(true);
         dataSource.setValidationQuery("SELECT 1");
+        // 批量插入时由驱动改写为多行INSERT，URL中显式配置时以URL为准
+        String url = config.getUrl();
+        if (url != null && url.startsWith("jdbc:mysql:") && !url.contains("rewriteBatchedStatements")) {
+            dataSource.addConnectionProperty("rewriteBatchedStatements", "true");
+        }
         return dataSource;
     }
 
@@ -1,18 +1,36 @@
 package db.cl.gao.controller;
 
 import db.cl.gao.common.ApiOutput;
+import db.cl.gao.common.Constant;
 import db.cl.gao.common.annotation.LogOperation;
+import db.cl.gao.common.enums.ExportCompression;
 import db.cl.gao.common.enums.ExportFormat;
+import db.cl.gao.common.enums.ImportType;
+import db.cl.gao.common.param.ExportJobInfo;
 import db.cl.gao.common.param.ExportRequest;
+import db.cl.gao.common.param.ImportCheckpoint;
+import db.cl.gao.common.param.ImportJobInfo;
+import db.cl.gao.common.param.ImportOptions;
 import db.cl.gao.common.param.ImportResult;
+import db.cl.gao.common.param.ImportValidationResult;
+import db.cl.gao.common.param.MultiTableExportRequest;
 import db.cl.gao.service.DataImportExportService;
+import db.cl.gao.service.ExportJobService;
+import db.cl.gao.service.ImportCheckpointService;
+import db.cl.gao.service.ImportDropDirService;
+import db.cl.gao.service.ImportErrorReportService;
+import db.cl.gao.service.ImportJobService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
@@ -20,10 +38,16 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
+import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 
 /**
  * 数据导入导出控制器
@@ -42,34 +66,121 @@ public class DataImportExportController {
 
     private final DataImportExportService dataImportExportService;
 
+    private final ExportJobService exportJobService;
+
+    private final ImportCheckpointService importCheckpointService;
+
+    private final ImportJobService importJobService;
+
+    private final ImportErrorReportService importErrorReportService;
+
+    private final ImportDropDirService importDropDirService;
+
     @Autowired
-    public DataImportExportController(DataImportExportService dataImportExportService) {
+    public DataImportExportController(DataImportExportService dataImportExportService,
+                                      ExportJobService exportJobService,
+                                      ImportCheckpointService importCheckpointService,
+                                      ImportJobService importJobService,
+                                      ImportErrorReportService importErrorReportService,
+                                      ImportDropDirService importDropDirService) {
         this.dataImportExportService = dataImportExportService;
+        this.exportJobService = exportJobService;
+        this.importCheckpointService = importCheckpointService;
+        this.importJobService = importJobService;
+        this.importErrorReportService = importErrorReportService;
+        this.importDropDirService = importDropDirService;
     }
 
     /**
      * 数据导出
      */
-    @LogOperation(type = LogOperation.OperationType.EXPORT, tableName = "#request.tableName",
-            dynamicType = false)
     @PostMapping("/export")
-    public ResponseEntity<Resource> exportData(
+    public ResponseEntity<StreamingResponseBody> exportData(
             @RequestHeader(value = "X-Database", required = false) String database,
-            @Valid @RequestBody ExportRequest request) throws IOException {
+            @Valid @RequestBody ExportRequest request) {
 
         log.info("导出数据请求: database={}, request={}", database, request);
 
-        Resource resource = dataImportExportService.exportData(database, request);
+        StreamingResponseBody body = dataImportExportService.exportData(database, request);
 
-        String fileName = String.format("%s_export.%s",
-                request.getTableName(),
-                request.getFormat().getExtension());
+        String fileName = dataImportExportService.getExportFileName(request);
 
         return ResponseEntity.ok()
-                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .contentType(MediaType.parseMediaType(request.getCompression().getContentType()))
                 .header(HttpHeaders.CONTENT_DISPOSITION,
                         "attachment; filename=\"" + fileName + "\"")
-                .body(resource);
+                .body(body);
+    }
+
+    /**
+     * 多表导出，所有表打包为一个zip
+     */
+    @PostMapping("/export/tables")
+    public ResponseEntity<StreamingResponseBody> exportTables(
+            @RequestHeader(value = "X-Database", required = false) String database,
+            @Valid @RequestBody MultiTableExportRequest request) {
+
+        log.info("多表导出请求: database={}, request={}", database, request);
+
+        StreamingResponseBody body = dataImportExportService.exportTables(database, request);
+
+        String fileName = String.format("%s_export.zip",
+                StringUtils.hasText(database) ? database : Constant.DEFAULT_DATABASE);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(ExportCompression.ZIP.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + fileName + "\"")
+                .body(body);
+    }
+
+    /**
+     * 提交异步导出任务
+     */
+    @PostMapping("/export/jobs")
+    public ApiOutput<ExportJobInfo> submitExportJob(
+            @RequestHeader(value = "X-Database", required = false) String database,
+            @Valid @RequestBody ExportRequest request) {
+
+        log.info("异步导出请求: database={}, request={}", database, request);
+
+        return ApiOutput.success(exportJobService.submit(database, request));
+    }
+
+    /**
+     * 查询导出任务进度
+     */
+    @GetMapping("/export/jobs/{jobId}")
+    public ApiOutput<ExportJobInfo> getExportJob(@PathVariable String jobId) {
+        return ApiOutput.success(exportJobService.getJob(jobId));
+    }
+
+    /**
+     * 下载导出任务文件，支持Range断点续传
+     */
+    @LogOperation(type = LogOperation.OperationType.DOWNLOAD, dynamicType = false, value = "下载导出文件")
+    @GetMapping("/export/jobs/{jobId}/download")
+    public ResponseEntity<Resource> downloadExportJob(@PathVariable String jobId) {
+        ExportJobInfo jobInfo = exportJobService.getJob(jobId);
+        File file = exportJobService.getJobFile(jobId);
+
+        // 返回Resource时由Spring MVC处理Range请求并响应206
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + jobInfo.getFileName() + "\"")
+                .lastModified(file.lastModified())
+                .eTag(jobId)
+                .body(new FileSystemResource(file));
+    }
+
+    /**
+     * 取消或删除导出任务
+     */
+    @DeleteMapping("/export/jobs/{jobId}")
+    public ApiOutput<Void> deleteExportJob(@PathVariable String jobId) {
+        exportJobService.deleteJob(jobId);
+        return ApiOutput.success();
     }
 
     /**
@@ -96,13 +207,12 @@ public class DataImportExportController {
     /**
      * CSV导入
      */
-    @LogOperation(type = LogOperation.OperationType.IMPORT, tableName = "#tableName",
-            dynamicType = false,value = "CSV导入")
     @PostMapping(value = "/import/csv", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ApiOutput<ImportResult> importCsv(
             @RequestHeader(value = "X-Database", required = false) String database,
             @RequestParam @NotBlank(message = "表名不能为空") String tableName,
             @RequestParam(defaultValue = "false") boolean truncateFirst,
+            @Valid ImportOptions options,
             @RequestParam("file") MultipartFile file) throws IOException {
 
         validateFile(file, "csv");
@@ -110,7 +220,7 @@ public class DataImportExportController {
                 database, tableName, truncateFirst);
 
         ImportResult result = dataImportExportService.importCsv(
-                database, tableName, truncateFirst, file);
+                database, tableName, truncateFirst, options, file);
 
         return ApiOutput.success(result);
     }
@@ -118,13 +228,12 @@ public class DataImportExportController {
     /**
      * Excel导入
      */
-    @LogOperation(type = LogOperation.OperationType.IMPORT, tableName = "#tableName",
-            dynamicType = false,value = "Excel导入")
     @PostMapping(value = "/import/excel", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ApiOutput<ImportResult> importExcel(
             @RequestHeader(value = "X-Database", required = false) String database,
             @RequestParam @NotBlank(message = "表名不能为空") String tableName,
             @RequestParam(defaultValue = "false") boolean truncateFirst,
+            @Valid ImportOptions options,
             @RequestParam("file") MultipartFile file) throws IOException {
 
         validateFile(file, "excel");
@@ -132,33 +241,225 @@ public class DataImportExportController {
                 database, tableName, truncateFirst);
 
         ImportResult result = dataImportExportService.importExcel(
-                database, tableName, truncateFirst, file);
+                database, tableName, truncateFirst, options, file);
+
+        return ApiOutput.success(result);
+    }
+
+    /**
+     * JSON导入，支持对象数组和NDJSON
+     */
+    @PostMapping(value = "/import/json", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ApiOutput<ImportResult> importJson(
+            @RequestHeader(value = "X-Database", required = false) String database,
+            @RequestParam @NotBlank(message = "表名不能为空") String tableName,
+            @RequestParam(defaultValue = "false") boolean truncateFirst,
+            @Valid ImportOptions options,
+            @RequestParam("file") MultipartFile file) throws IOException {
+
+        validateFile(file, "json", "ndjson");
+        log.info("JSON导入请求: database={}, tableName={}, truncateFirst={}",
+                database, tableName, truncateFirst);
+
+        ImportResult result = dataImportExportService.importJson(
+                database, tableName, truncateFirst, options, file);
+
+        return ApiOutput.success(result);
+    }
+
+    /**
+     * 服务端导入目录中的文件
+     */
+    @GetMapping("/import/drop-files")
+    public ApiOutput<List<Map<String, Object>>> listDropFiles() throws IOException {
+        return ApiOutput.success(importDropDirService.listFiles());
+    }
+
+    /**
+     * 服务端目录CSV导入，文件从import.drop-dir读取，适合无法上传的大文件
+     */
+    @PostMapping("/import/csv/drop")
+    public ApiOutput<ImportResult> importDropCsv(
+            @RequestHeader(value = "X-Database", required = false) String database,
+            @RequestParam @NotBlank(message = "表名不能为空") String tableName,
+            @RequestParam @NotBlank(message = "文件名不能为空") String fileName,
+            @RequestParam(defaultValue = "false") boolean truncateFirst,
+            @Valid ImportOptions options) throws IOException {
+
+        log.info("服务端目录CSV导入请求: database={}, tableName={}, fileName={}, truncateFirst={}",
+                database, tableName, fileName, truncateFirst);
+
+        ImportResult result = dataImportExportService.importDropCsv(
+                database, tableName, truncateFirst, options, fileName);
 
         return ApiOutput.success(result);
     }
 
+    /**
+     * CSV导入预校验，只校验不写入
+     */
+    @PostMapping(value = "/import/csv/validate", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ApiOutput<ImportValidationResult> validateCsv(
+            @RequestHeader(value = "X-Database", required = false) String database,
+            @RequestParam @NotBlank(message = "表名不能为空") String tableName,
+            @RequestParam("file") MultipartFile file) throws IOException {
+
+        validateFile(file, "csv");
+        log.info("CSV预校验请求: database={}, tableName={}", database, tableName);
+
+        return ApiOutput.success(dataImportExportService.validateCsv(database, tableName, file));
+    }
+
+    /**
+     * Excel导入预校验，只校验不写入
+     */
+    @PostMapping(value = "/import/excel/validate", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ApiOutput<ImportValidationResult> validateExcel(
+            @RequestHeader(value = "X-Database", required = false) String database,
+            @RequestParam @NotBlank(message = "表名不能为空") String tableName,
+            @RequestParam("file") MultipartFile file) throws IOException {
+
+        validateFile(file, "excel");
+        log.info("Excel预校验请求: database={}, tableName={}", database, tableName);
+
+        return ApiOutput.success(dataImportExportService.validateExcel(database, tableName, file));
+    }
+
+    /**
+     * JSON导入预校验，只校验不写入
+     */
+    @PostMapping(value = "/import/json/validate", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ApiOutput<ImportValidationResult> validateJson(
+            @RequestHeader(value = "X-Database", required = false) String database,
+            @RequestParam @NotBlank(message = "表名不能为空") String tableName,
+            @RequestParam("file") MultipartFile file) throws IOException {
+
+        validateFile(file, "json", "ndjson");
+        log.info("JSON预校验请求: database={}, tableName={}", database, tableName);
+
+        return ApiOutput.success(dataImportExportService.validateJson(database, tableName, file));
+    }
+
     /**
      * SQL导入
      */
-    @LogOperation(type = LogOperation.OperationType.IMPORT, tableName = "#tableName",
-            dynamicType = false,value = "SQL导入")
     @PostMapping(value = "/import/sql", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ApiOutput<ImportResult> importSql(
             @RequestHeader(value = "X-Database", required = false) String database,
+            @Valid ImportOptions options,
             @RequestParam("file") MultipartFile file) throws IOException {
 
         validateFile(file, "sql");
         log.info("SQL导入请求: database={}", database);
 
-        ImportResult result = dataImportExportService.importSql(database, file);
+        ImportResult result = dataImportExportService.importSql(database, options, file);
 
         return ApiOutput.success(result);
     }
 
+    /**
+     * 提交异步导入任务
+     */
+    @PostMapping(value = "/import/jobs", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ApiOutput<ImportJobInfo> submitImportJob(
+            @RequestHeader(value = "X-Database", required = false) String database,
+            @RequestParam ImportType importType,
+            @RequestParam(required = false) String tableName,
+            @RequestParam(defaultValue = "false") boolean truncateFirst,
+            @Valid ImportOptions options,
+            @RequestParam("file") MultipartFile file) throws IOException {
+
+        if (importType == ImportType.JSON) {
+            validateFile(file, "json", "ndjson");
+        } else {
+            validateFile(file, importType.name().toLowerCase());
+        }
+        log.info("异步导入请求: database={}, type={}, tableName={}, truncateFirst={}",
+                database, importType, tableName, truncateFirst);
+
+        return ApiOutput.success(importJobService.submit(importType, database, tableName, truncateFirst, options, file));
+    }
+
+    /**
+     * 提交服务端目录CSV异步导入任务
+     */
+    @PostMapping("/import/jobs/drop")
+    public ApiOutput<ImportJobInfo> submitDropImportJob(
+            @RequestHeader(value = "X-Database", required = false) String database,
+            @RequestParam @NotBlank(message = "表名不能为空") String tableName,
+            @RequestParam @NotBlank(message = "文件名不能为空") String fileName,
+            @RequestParam(defaultValue = "false") boolean truncateFirst,
+            @Valid ImportOptions options) {
+
+        log.info("服务端目录异步导入请求: database={}, tableName={}, fileName={}, truncateFirst={}",
+                database, tableName, fileName, truncateFirst);
+
+        return ApiOutput.success(importJobService.submitDropCsv(database, tableName, truncateFirst, options, fileName));
+    }
+
+    /**
+     * 查询导入任务进度
+     */
+    @GetMapping("/import/jobs/{jobId}")
+    public ApiOutput<ImportJobInfo> getImportJob(@PathVariable String jobId) {
+        return ApiOutput.success(importJobService.getJob(jobId));
+    }
+
+    /**
+     * 取消或删除导入任务
+     */
+    @DeleteMapping("/import/jobs/{jobId}")
+    public ApiOutput<Void> deleteImportJob(@PathVariable String jobId) {
+        importJobService.deleteJob(jobId);
+        return ApiOutput.success();
+    }
+
+    /**
+     * 查询分段导入检查点
+     */
+    @GetMapping("/import/checkpoints/{checkpointId}")
+    public ApiOutput<ImportCheckpoint> getImportCheckpoint(@PathVariable String checkpointId) {
+        return ApiOutput.success(importCheckpointService.get(checkpointId));
+    }
+
+    /**
+     * 从检查点续传中断的分段导入
+     */
+    @PostMapping("/import/checkpoints/{checkpointId}/resume")
+    public ApiOutput<ImportResult> resumeImport(@PathVariable String checkpointId) throws IOException {
+        log.info("续传导入请求: checkpointId={}", checkpointId);
+        return ApiOutput.success(dataImportExportService.resumeImport(checkpointId));
+    }
+
+    /**
+     * 放弃续传，删除检查点及保存的文件
+     */
+    @DeleteMapping("/import/checkpoints/{checkpointId}")
+    public ApiOutput<Void> deleteImportCheckpoint(@PathVariable String checkpointId) throws IOException {
+        importCheckpointService.delete(checkpointId);
+        return ApiOutput.success();
+    }
+
+    /**
+     * 下载导入错误报告，包含全部失败行和错误原因
+     */
+    @LogOperation(type = LogOperation.OperationType.DOWNLOAD, dynamicType = false, value = "下载导入错误报告")
+    @GetMapping("/import/errors/{reportId}")
+    public ResponseEntity<Resource> downloadImportErrors(@PathVariable String reportId) {
+        File file = importErrorReportService.getReportFile(reportId);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"import_errors_" + reportId + ".csv\"")
+                .lastModified(file.lastModified())
+                .body(new FileSystemResource(file));
+    }
+
     /**
      * 验证上传文件
      */
-    private void validateFile(MultipartFile file, String fileType) {
+    private void validateFile(MultipartFile file, String... fileTypes) {
         if (file == null || file.isEmpty()) {
             throw new IllegalArgumentException("上传文件不能为空");
         }
@@ -176,20 +477,30 @@ public class DataImportExportController {
             throw new IllegalArgumentException("文件名不能为空");
         }
 
-        boolean isValid = isIsValid(fileType, originalFilename);
+        boolean isValid = false;
+        for (String fileType : fileTypes) {
+            isValid = isValid || isIsValid(fileType, originalFilename);
+        }
 
         if (!isValid) {
             throw new IllegalArgumentException(
-                    String.format("只能上传%s格式文件", fileType.toUpperCase()));
+                    String.format("只能上传%s格式文件", String.join("/", fileTypes).toUpperCase()));
         }
     }
 
     private static boolean isIsValid(String fileType, String originalFilename) {
-        ExportFormat exportFormat = ExportFormat.fromExtension(fileType);
-        boolean isValid = false;
-        if(exportFormat != null ){
-            isValid = originalFilename.toLowerCase().endsWith("."+exportFormat.getExtension());
+        String fileName = originalFilename.toLowerCase();
+        return importExtensions(fileType).stream().anyMatch(extension -> fileName.endsWith("." + extension));
+    }
+
+    /**
+     * 导入类型允许的文件扩展名；Excel导入同时接受旧版xls
+     */
+    private static List<String> importExtensions(String fileType) {
+        ExportFormat exportFormat = ExportFormat.fromValue(fileType);
+        if (exportFormat == ExportFormat.EXCEL) {
+            return Arrays.asList(exportFormat.getExtension(), "xls");
         }
-        return isValid;
+        return exportFormat != null ? Collections.singletonList(exportFormat.getExtension()) : Collections.emptyList();
     }
 }
@@ -3,33 +3,92 @@ package db.cl.gao.service;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.mysql.cj.conf.PropertyKey;
+import com.mysql.cj.jdbc.JdbcConnection;
+import com.mysql.cj.jdbc.JdbcStatement;
 import db.cl.gao.common.Constant;
+import db.cl.gao.common.annotation.LogOperation;
+import db.cl.gao.common.enums.ExportCompression;
 import db.cl.gao.common.enums.ExportFormat;
+import db.cl.gao.common.enums.ImportErrorType;
+import db.cl.gao.common.enums.ImportMode;
+import db.cl.gao.common.enums.ImportType;
 import db.cl.gao.common.excep.DbException;
+import db.cl.gao.common.model.OperationLog;
 import db.cl.gao.common.param.DatabaseContextHolder;
 import db.cl.gao.common.param.ExportRequest;
+import db.cl.gao.common.param.ImportCheckpoint;
+import db.cl.gao.common.param.ImportOptions;
 import db.cl.gao.common.param.ImportResult;
+import db.cl.gao.common.param.ImportValidationResult;
+import db.cl.gao.common.param.MultiTableExportRequest;
+import db.cl.gao.service.export.ArrowExportWriter;
+import db.cl.gao.service.export.CountingExportWriter;
+import db.cl.gao.service.export.CsvExportWriter;
+import db.cl.gao.service.export.ExportColumn;
+import db.cl.gao.service.export.ExcelExportWriter;
+import db.cl.gao.service.export.ExportWriter;
+import db.cl.gao.service.export.JsonExportWriter;
+import db.cl.gao.service.export.ParallelRangeExporter;
+import db.cl.gao.service.export.SqlExportWriter;
+import db.cl.gao.service.importer.ColumnConverter;
+import db.cl.gao.service.importer.ColumnConverters;
+import db.cl.gao.service.importer.ColumnValidator;
+import db.cl.gao.service.importer.CsvLoadDataInputStream;
+import db.cl.gao.service.importer.ImportErrorCollector;
+import db.cl.gao.service.importer.ImportPipeline;
+import db.cl.gao.service.importer.ImportProgress;
+import db.cl.gao.service.importer.ImportValidator;
+import db.cl.gao.service.importer.InsertSqlBuilder;
+import db.cl.gao.service.importer.JsonRecordReader;
+import db.cl.gao.service.importer.MappedCsvReader;
+import db.cl.gao.service.importer.SqlScriptExecutor;
+import db.cl.gao.service.importer.SqlScriptReader;
+import db.cl.gao.service.importer.XlsxStreamReader;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVPrinter;
 import org.apache.commons.csv.CSVRecord;
+import org.apache.poi.poifs.filesystem.FileMagic;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.ss.util.NumberToTextConverter;
 import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamSource;
 import org.springframework.core.io.Resource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.StreamUtils;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import javax.sql.DataSource;
 import java.io.*;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.sql.Statement;
 import java.text.SimpleDateFormat;
 import java.util.*;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 /**
  * 数据导入导出服务实现
@@ -42,14 +101,28 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class DataImportExportService {
 
-    private static final int BATCH_SIZE = 1000;
-    private static final String ERROR_COLUMN = "__error";
     private static final String UTF_8_BOM = "\uFEFF";
+    private static final int CHUNKS_PER_WORKER = 4;
+    private static final int COMPRESS_BUFFER_SIZE = 64 * 1024;
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_VALIDATION_SAMPLES = 100;
+    private static final CSVFormat CSV_IMPORT_FORMAT = CSVFormat.DEFAULT.builder()
+            .setHeader()
+            .setSkipHeaderRecord(true)
+            .setIgnoreHeaderCase(true)
+            .build();
+    private static final List<String> SQL_REPORT_COLUMNS = Collections.singletonList("sql");
+    private static final List<String> RANGE_KEY_TYPES = Arrays.asList(
+            "tinyint", "smallint", "mediumint", "int", "bigint");
 
     // 配置JSON ObjectMapper
     private static final ObjectMapper JSON_OBJECT_MAPPER = createJsonObjectMapper();
 
     private final DatabaseService databaseService;
+    private final JobAuditService jobAuditService;
+    private final ImportCheckpointService importCheckpointService;
+    private final ImportErrorReportService importErrorReportService;
+    private final ImportDropDirService importDropDirService;
 
     /**
      * 创建JSON专用的ObjectMapper
@@ -63,51 +136,69 @@ public class DataImportExportService {
 
     /**
      * 数据导出
+     * <p>
+     * 表校验在请求线程内同步完成，数据在响应输出时按游标流式写出
      *
      * @param database 数据库名称
      * @param request  导出请求参数
      * @return 导出结果
      */
-    @SuppressWarnings("unchecked")
-    public Resource exportData(String database, ExportRequest request) throws IOException {
-        long startTime = System.currentTimeMillis();
+    public StreamingResponseBody exportData(String database, ExportRequest request) {
+        return exportData(database, request, null);
+    }
 
+    /**
+     * 数据导出，并通过rowCounter实时统计已写出行数
+     *
+     * @param database   数据库名称
+     * @param request    导出请求参数
+     * @param rowCounter 已写出行数计数器，可为空
+     * @return 导出结果
+     */
+    public StreamingResponseBody exportData(String database, ExportRequest request, AtomicLong rowCounter) {
+        OperationLog audit;
         try {
             if (StringUtils.hasText(database)) {
                 DatabaseContextHolder.setDatabase(database);
             }
 
-            String tableName = request.getTableName();
-            ExportFormat format = request.getFormat();
-            String whereClause = request.getWhereClause();
-
             // 验证表是否存在
-            validateTableExists(tableName);
+            validateTableExists(request.getTableName());
+            validateQueryOptions(request);
+            if (request.getCompression() == null) {
+                request.setCompression(ExportCompression.NONE);
+            }
+            audit = jobAuditService.start(LogOperation.OperationType.EXPORT, database,
+                    request.getTableName(), "导出" + request.getFormat());
+        } finally {
+            DatabaseContextHolder.clear();
+        }
 
-            String sql = buildExportSql(tableName, whereClause);
-            log.info("导出SQL: {}", sql);
+        return outputStream -> runAudited(audit, () -> exportTo(database, request, outputStream, rowCounter));
+    }
 
-            // 使用 DatabaseService 执行查询
-            Map<String, Object> queryResult = databaseService.executeQuery(sql);
+    /**
+     * 将导出数据写入输出流，调用方负责关闭输出流
+     *
+     * @param database     数据库名称
+     * @param request      导出请求参数
+     * @param outputStream 输出流
+     * @param rowCounter   已写出行数计数器，可为空
+     * @return 写出行数
+     */
+    public long exportTo(String database, ExportRequest request, OutputStream outputStream,
+                         AtomicLong rowCounter) throws IOException {
+        long startTime = System.currentTimeMillis();
 
-            if (Boolean.FALSE.equals(queryResult.getOrDefault(Constant.SUCCESS, false))) {
-                throw new DbException("查询失败: " + queryResult.get(Constant.MESSAGE));
+        try {
+            if (StringUtils.hasText(database)) {
+                DatabaseContextHolder.setDatabase(database);
             }
 
-            List<Map<String, Object>> data = (List<Map<String, Object>>) queryResult.get("data");
-
-            // 将switch表达式改为传统switch语句
-            switch (format) {
-                case EXCEL:
-                    return exportToExcel(data, tableName);
-                case CSV:
-                    return exportToCsv(data);
-                case JSON:
-                    return exportToJson(data);
-                case SQL:
-                    return exportToSql(data, tableName);
-                default:
-                    throw new IllegalArgumentException("不支持的导出格式: " + format);
+            // 压缩流关闭时写出压缩尾部，但不关闭调用方的输出流
+            try (OutputStream target = openCompressedStream(request, StreamUtils.nonClosing(outputStream));
+                 ExportWriter writer = createExportWriter(request, target, rowCounter)) {
+                return exportTable(request, writer);
             }
 
         } finally {
@@ -116,6 +207,241 @@ public class DataImportExportService {
         }
     }
 
+    /**
+     * 多表导出：每张表一个条目，依次流式写入同一个zip
+     * <p>
+     * 表清单在请求线程内一次性解析校验
+     *
+     * @param database 数据库名称
+     * @param request  多表导出请求
+     * @return 导出结果
+     */
+    public StreamingResponseBody exportTables(String database, MultiTableExportRequest request) {
+        List<String> tableNames;
+        OperationLog audit;
+        try {
+            if (StringUtils.hasText(database)) {
+                DatabaseContextHolder.setDatabase(database);
+            }
+
+            tableNames = resolveExportTables(request);
+            audit = jobAuditService.start(LogOperation.OperationType.EXPORT, database,
+                    String.join(",", tableNames), "多表导出" + request.getFormat());
+        } finally {
+            DatabaseContextHolder.clear();
+        }
+
+        return outputStream -> runAudited(audit, () -> exportTablesTo(database, request, tableNames, outputStream));
+    }
+
+    /**
+     * 将多张表导出为zip写入输出流，调用方负责关闭输出流
+     *
+     * @return 所有表的写出行数
+     */
+    public long exportTablesTo(String database, MultiTableExportRequest request,
+                               List<String> tableNames, OutputStream outputStream) throws IOException {
+        long startTime = System.currentTimeMillis();
+        long rows = 0;
+
+        try (ZipOutputStream zipOutputStream = new ZipOutputStream(
+                new BufferedOutputStream(StreamUtils.nonClosing(outputStream), COMPRESS_BUFFER_SIZE),
+                StandardCharsets.UTF_8)) {
+            if (StringUtils.hasText(database)) {
+                DatabaseContextHolder.setDatabase(database);
+            }
+
+            for (String tableName : tableNames) {
+                ExportRequest tableRequest = request.toTableRequest(tableName);
+                zipOutputStream.putNextEntry(new ZipEntry(getExportEntryName(tableRequest)));
+                try (ExportWriter writer = createExportWriter(tableRequest, StreamUtils.nonClosing(zipOutputStream))) {
+                    rows += exportTable(tableRequest, writer);
+                }
+                zipOutputStream.closeEntry();
+            }
+            return rows;
+
+        } finally {
+            log.info("多表导出完成，表数: {}, 耗时: {}ms", tableNames.size(), System.currentTimeMillis() - startTime);
+            DatabaseContextHolder.clear();
+        }
+    }
+
+    /**
+     * 执行导出并在结束时写入一条汇总审计记录
+     */
+    private void runAudited(OperationLog audit, ExportTask task) throws IOException {
+        long startTime = System.currentTimeMillis();
+        long rows = 0;
+        Throwable failure = null;
+        try {
+            rows = task.run();
+        } catch (IOException | RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            jobAuditService.finish(audit, rows, 0, System.currentTimeMillis() - startTime, failure);
+        }
+    }
+
+    /**
+     * 解析多表导出的表清单，表元数据只查询一次
+     */
+    private List<String> resolveExportTables(MultiTableExportRequest request) {
+        Set<String> existingTables = databaseService.getTables(false).stream()
+                .map(table -> (String) table.get("TABLE_NAME"))
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        if (request.isAllTables()) {
+            return new ArrayList<>(existingTables);
+        }
+
+        if (request.getTableNames() == null || request.getTableNames().isEmpty()) {
+            throw new IllegalArgumentException("请指定要导出的表");
+        }
+
+        List<String> tableNames = new ArrayList<>(new LinkedHashSet<>(request.getTableNames()));
+        for (String tableName : tableNames) {
+            if (!existingTables.contains(tableName)) {
+                throw new DbException("表不存在: " + tableName);
+            }
+        }
+        return tableNames;
+    }
+
+    /**
+     * 导出单张表，返回写出行数
+     */
+    private long exportTable(ExportRequest request, ExportWriter writer) throws IOException {
+        List<Object> args = new ArrayList<>();
+        String sql = buildExportSql(request, args);
+        log.info("导出SQL: {}, 参数: {}", sql, args);
+
+        // 排序、分页与按主键区间拆分的分片顺序不兼容，只能串行导出
+        boolean parallel = request.getParallelism() > 1 && !isOrderedOrLimited(request);
+        long rows = parallel
+                ? parallelExport(request, sql, writer)
+                : streamExport(sql, args.toArray(), writer);
+        log.info("导出行数: {}, table={}", rows, request.getTableName());
+        return rows;
+    }
+
+    /**
+     * 导出文件名，压缩时追加压缩后缀
+     */
+    public String getExportFileName(ExportRequest request) {
+        String fileName = getExportEntryName(request);
+        ExportCompression compression = request.getCompression();
+        if (compression == null || compression == ExportCompression.NONE) {
+            return fileName;
+        }
+        return fileName + "." + compression.getExtension();
+    }
+
+    /**
+     * 未压缩的导出文件名，同时作为zip内的条目名
+     */
+    private String getExportEntryName(ExportRequest request) {
+        return String.format("%s_export.%s",
+                request.getTableName(),
+                request.getFormat().getExtension());
+    }
+
+    /**
+     * 按压缩方式包装输出流
+     */
+    private OutputStream openCompressedStream(ExportRequest request, OutputStream outputStream) throws IOException {
+        ExportCompression compression = request.getCompression();
+        if (compression == null || compression == ExportCompression.NONE) {
+            return outputStream;
+        }
+
+        switch (compression) {
+            case GZIP:
+                return new GZIPOutputStream(outputStream, COMPRESS_BUFFER_SIZE);
+            case ZIP:
+                ZipOutputStream zipOutputStream = new ZipOutputStream(
+                        new BufferedOutputStream(outputStream, COMPRESS_BUFFER_SIZE), StandardCharsets.UTF_8);
+                zipOutputStream.putNextEntry(new ZipEntry(getExportEntryName(request)));
+                return zipOutputStream;
+            default:
+                throw new IllegalArgumentException("不支持的压缩格式: " + compression);
+        }
+    }
+
+    /**
+     * 创建写入器，需要统计进度时包装计数
+     */
+    private ExportWriter createExportWriter(ExportRequest request, OutputStream outputStream,
+                                            AtomicLong rowCounter) throws IOException {
+        ExportWriter writer = createExportWriter(request, outputStream);
+        return rowCounter == null ? writer : new CountingExportWriter(writer, rowCounter);
+    }
+
+    /**
+     * 按导出格式创建写入器
+     */
+    private ExportWriter createExportWriter(ExportRequest request, OutputStream outputStream) throws IOException {
+        ExportFormat format = request.getFormat();
+        // 将switch表达式改为传统switch语句
+        switch (format) {
+            case EXCEL:
+                return new ExcelExportWriter(outputStream, request.getTableName());
+            case CSV:
+                return new CsvExportWriter(outputStream);
+            case JSON:
+                return new JsonExportWriter(JSON_OBJECT_MAPPER, outputStream, false);
+            case NDJSON:
+                return new JsonExportWriter(JSON_OBJECT_MAPPER, outputStream, true);
+            case SQL:
+                int rowsPerStatement = request.isExtendedInsert() ? request.getInsertBatchRows() : 1;
+                return new SqlExportWriter(outputStream, request.getTableName(),
+                        rowsPerStatement, request.getInsertMaxLength());
+            case ARROW:
+                return new ArrowExportWriter(outputStream);
+            default:
+                throw new IllegalArgumentException("不支持的导出格式: " + format);
+        }
+    }
+
+    /**
+     * 按游标流式导出，返回写出行数
+     */
+    private long streamExport(String sql, ExportWriter writer) {
+        return streamExport(sql, new Object[0], writer);
+    }
+
+    /**
+     * 按游标流式导出带绑定参数的查询，返回写出行数
+     */
+    private long streamExport(String sql, Object[] args, ExportWriter writer) {
+        return databaseService.streamQuery(sql, args, rs -> {
+            try {
+                return writeResultSet(rs, writer);
+            } catch (IOException e) {
+                throw new DbException("导出写入失败: " + e.getMessage(), e);
+            }
+        });
+    }
+
+    /**
+     * 将结果集逐行交给写入器，内存中只保留当前行
+     */
+    private long writeResultSet(ResultSet rs, ExportWriter writer) throws SQLException, IOException {
+        List<ExportColumn> columns = ExportColumn.fromMetaData(rs.getMetaData());
+        writer.writeHeader(columns);
+
+        int columnCount = columns.size();
+        long rowCount = 0;
+        while (rs.next()) {
+            writer.writeRow(ExportColumn.readValues(rs, columnCount));
+            rowCount++;
+        }
+
+        writer.finish();
+        return rowCount;
+    }
+
     public Resource generateTemplate(String database, String tableName) throws IOException {
         try {
             if (StringUtils.hasText(database)) {
@@ -160,10 +486,25 @@ public class DataImportExportService {
     }
 
     @Transactional(rollbackFor = Exception.class)
-    public ImportResult importCsv(String database, String tableName,
-                                  boolean truncateFirst, MultipartFile file) throws IOException {
+    public ImportResult importCsv(String database, String tableName, boolean truncateFirst,
+                                  ImportOptions options, MultipartFile file) throws IOException {
+        ImportCheckpoint checkpoint = createCheckpoint(database, tableName, ImportType.CSV, options, file);
+        return importCsv(database, tableName, truncateFirst, options, checkpointSource(file, checkpoint), checkpoint,
+                new ImportProgress());
+    }
+
+    /**
+     * CSV导入，checkpoint不为空时分段提交并从检查点位置继续
+     */
+    private ImportResult importCsv(String database, String tableName, boolean truncateFirst, ImportOptions options,
+                                   InputStreamSource file, ImportCheckpoint checkpoint, ImportProgress progress)
+            throws IOException {
         long startTime = System.currentTimeMillis();
         ImportResult result = new ImportResult();
+        OperationLog audit = jobAuditService.start(LogOperation.OperationType.IMPORT, database, tableName,
+                checkpointDescription("CSV导入", checkpoint));
+        ImportErrorCollector errors = importErrorReportService.createCollector();
+        Throwable failure = null;
 
         try {
             if (StringUtils.hasText(database)) {
@@ -174,20 +515,35 @@ public class DataImportExportService {
             validateTableExists(tableName);
 
             // 使用 DatabaseService 获取表结构
-            List<Map<String, Object>> columnInfos = databaseService.getTableStructure(tableName);
-            List<String> tableColumns = columnInfos.stream()
-                    .map(column -> (String) column.get(Constant.COLUMN_NAME))
-                    .collect(Collectors.toList());
+            List<Map<String, Object>> columnInfos = databaseService.getTableStructure(tableName, false);
+            InsertSqlBuilder insertSql = createInsertSqlBuilder(tableName, columnInfos, options);
 
             // 清空表数据
             if (truncateFirst) {
                 truncateTable(tableName);
             }
 
+            // MySQL本地导入快速路径，环境不支持时回退为批量插入；LOAD DATA是单条语句，不支持分段提交，
+            // 也没有键冲突时更新的语义
+            if (options.isBulkLoad() && checkpoint == null && options.getMode() != ImportMode.UPSERT
+                    && loadCsvData(file, tableName, columnInfos, errors, result, startTime)) {
+                progress.addRead(result.getImportedRows() + result.getErrorRows());
+                progress.addImported(result.getImportedRows());
+                progress.addFailed(result.getErrorRows());
+                return result;
+            }
+
             // 处理CSV文件
-            return processCsvFile(file, tableName, tableColumns, result, startTime);
+            return processCsvFile(file, insertSql, columnInfos, options, checkpoint, progress, errors, result,
+                    startTime);
 
+        } catch (IOException | RuntimeException e) {
+            failure = e;
+            throw e;
         } finally {
+            finishErrors(result, errors, checkpoint, progress, failure);
+            finishImportAudit(audit, result, startTime, failure);
+            endCheckpoint(checkpoint, failure);
             DatabaseContextHolder.clear();
         }
     }
@@ -195,66 +551,182 @@ public class DataImportExportService {
     /**
      * 处理CSV文件导入
      */
-    private ImportResult processCsvFile(MultipartFile file, String tableName,
-                                        List<String> tableColumns, ImportResult result,
-                                        long startTime) throws IOException {
-        List<Map<String, Object>> errorDetails = new ArrayList<>();
+    private ImportResult processCsvFile(InputStreamSource file, InsertSqlBuilder insertSql,
+                                        List<Map<String, Object>> columnInfos, ImportOptions options,
+                                        ImportCheckpoint checkpoint, ImportProgress progress,
+                                        ImportErrorCollector errors, ImportResult result, long startTime)
+            throws IOException {
+        long resumePosition = checkpoint != null ? checkpoint.getPosition() : -1;
+
+        // 直接从上传流解析，边解析边写入，内存占用与文件大小无关
+        try (Reader reader = openUtf8Reader(file.getInputStream());
+             CSVParser csvParser = openCsvParser(file, reader, resumePosition)) {
+
+            List<String> headers = csvParser.getHeaderNames();
+            List<String> columns = resolveInsertColumns(columnInfos, headers);
+            ImportPipeline.RowConverter<List<String>> converter =
+                    recordConverter(columnInfos, columns, resolveColumnIndexes(columns, headers));
+
+            long importedRows = batchInsert(insertSql, options, headers, errors, checkpoint, progress, pipeline -> {
+                Iterator<CSVRecord> records = csvParser.iterator();
+                // 检查点位置是最后一条已提交的记录
+                if (resumePosition >= 0 && records.hasNext()) {
+                    records.next();
+                }
+                while (records.hasNext()) {
+                    CSVRecord csvRecord = records.next();
+                    pipeline.submit(columns, converter, csvRecord.toList(), csvRecord.getCharacterPosition());
+                }
+            });
 
-        // 解析CSV文件
-        String content = new String(file.getBytes(), StandardCharsets.UTF_8);
-        // 去除UTF-8 BOM
-        if (content.startsWith(UTF_8_BOM)) {
-            content = content.substring(1);
+            setImportedRows(result, importedRows, errors.getErrorCount(), checkpoint);
+            result.setCostTime(System.currentTimeMillis() - startTime);
+            return result;
         }
+    }
 
-        CSVFormat csvFormat = CSVFormat.DEFAULT.builder()
-                .setHeader()
-                .setSkipHeaderRecord(true)
-                .setIgnoreHeaderCase(true)
-                .build();
+    /**
+     * 通过LOAD DATA LOCAL INFILE导入CSV：上传内容规范化为LOAD DATA文本格式后经驱动的本地文件流发送，
+     * 不落盘。目标库不是MySQL、驱动未开启allowLoadLocalInfile或服务端关闭local_infile时返回false
+     */
+    private boolean loadCsvData(InputStreamSource file, String tableName, List<Map<String, Object>> columnInfos,
+                                ImportErrorCollector errors, ImportResult result, long startTime)
+            throws IOException {
+        DataSource dataSource = databaseService.getCurrentDataSource();
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            if (!isLocalInfileEnabled(connection)) {
+                log.info("当前连接不支持LOAD DATA LOCAL INFILE，回退为批量插入: table={}", tableName);
+                return false;
+            }
 
-        try (StringReader stringReader = new StringReader(content);
-             CSVParser csvParser = new CSVParser(stringReader, csvFormat)) {
+            try (Reader reader = openUtf8Reader(file.getInputStream());
+                 CSVParser csvParser = new CSVParser(reader, CSV_IMPORT_FORMAT);
+                 Statement statement = connection.createStatement()) {
+
+                List<String> headers = csvParser.getHeaderNames();
+                List<String> columns = resolveInsertColumns(columnInfos, headers);
+                int[] columnIndexes = resolveColumnIndexes(columns, headers);
+
+                CsvLoadDataInputStream data = new CsvLoadDataInputStream(csvParser.iterator(), columnIndexes);
+                statement.unwrap(JdbcStatement.class).setLocalInfileInputStream(data);
+                int loadedRows = statement.executeUpdate(String.format(
+                        "LOAD DATA LOCAL INFILE 'import.csv' INTO TABLE %s CHARACTER SET utf8mb4 "
+                                + "FIELDS TERMINATED BY '\\t' ESCAPED BY '\\\\' LINES TERMINATED BY '\\n' (%s)",
+                        tableName, String.join(", ", columns)));
+
+                // LOCAL模式下数据错误和重复键降级为警告，警告不含原始行，未导入的行计为错误行
+                for (SQLWarning warning = statement.getWarnings(); warning != null;
+                     warning = warning.getNextWarning()) {
+                    errors.add(Collections.emptyList(), Collections.emptyList(), ImportErrorType.of(warning),
+                            warning.getErrorCode() + ": " + warning.getMessage());
+                }
 
-            List<Map<String, String>> records = new ArrayList<>();
-            AtomicInteger successCount = new AtomicInteger(0);
+                result.setImportedRows(loadedRows);
+                result.setErrorRows((int) Math.max(data.getRecordCount() - loadedRows, 0));
+                result.setCostTime(System.currentTimeMillis() - startTime);
+                log.info("LOAD DATA导入完成: table={}, records={}, loaded={}",
+                        tableName, data.getRecordCount(), loadedRows);
+                return true;
+            }
+        } catch (SQLException e) {
+            throw new DbException("LOAD DATA导入失败: " + e.getMessage(), e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
 
-            for (CSVRecord csvRecord : csvParser) {
-                Map<String, String> recordMap = csvRecord.toMap();
-                records.add(recordMap);
+    /**
+     * 客户端（allowLoadLocalInfile）和服务端（local_infile）都开启时才能使用本地导入
+     */
+    private boolean isLocalInfileEnabled(Connection connection) throws SQLException {
+        if (!connection.isWrapperFor(JdbcConnection.class)) {
+            return false;
+        }
+        JdbcConnection mysqlConnection = connection.unwrap(JdbcConnection.class);
+        if (!mysqlConnection.getPropertySet().getBooleanProperty(PropertyKey.allowLoadLocalInfile).getValue()) {
+            return false;
+        }
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT @@GLOBAL.local_infile")) {
+            return rs.next() && rs.getBoolean(1);
+        }
+    }
 
-                // 批量处理
-                if (records.size() >= BATCH_SIZE) {
-                    processBatch(tableName, tableColumns, records, successCount, errorDetails);
-                    records.clear();
-                }
-            }
+    /**
+     * 以UTF-8打开带缓冲的字符流，并跳过开头的BOM
+     */
+    private static Reader openUtf8Reader(InputStream inputStream) throws IOException {
+        BufferedReader reader = new BufferedReader(
+                new InputStreamReader(inputStream, StandardCharsets.UTF_8), READ_BUFFER_SIZE);
+        reader.mark(1);
+        if (reader.read() != UTF_8_BOM.charAt(0)) {
+            reader.reset();
+        }
+        return reader;
+    }
 
-            // 处理剩余记录
-            if (!records.isEmpty()) {
-                processBatch(tableName, tableColumns, records, successCount, errorDetails);
-            }
+    /**
+     * 创建CSV解析器；续传时先单独读取表头，再跳到检查点位置继续解析，记录位置仍相对于文件开头
+     */
+    private static CSVParser openCsvParser(InputStreamSource file, Reader reader, long position) throws IOException {
+        if (position < 0) {
+            return new CSVParser(reader, CSV_IMPORT_FORMAT);
+        }
 
-            result.setImportedRows(successCount.get());
-            result.setErrorRows(errorDetails.size());
+        List<String> headers;
+        try (Reader headerReader = openUtf8Reader(file.getInputStream());
+             CSVParser headerParser = new CSVParser(headerReader, CSV_IMPORT_FORMAT)) {
+            headers = headerParser.getHeaderNames();
+        }
 
-            if (!errorDetails.isEmpty()) {
-                Map<String, Object> errorMap = new HashMap<>();
-                errorMap.put(Constant.ERRORS, errorDetails);
-                result.setErrorDetails(errorMap);
+        long skipped = 0;
+        while (skipped < position) {
+            long count = reader.skip(position - skipped);
+            if (count <= 0) {
+                throw new DbException("检查点位置超出文件长度");
             }
-
-            result.setCostTime(System.currentTimeMillis() - startTime);
-            return result;
+            skipped += count;
         }
+        CSVFormat format = CSV_IMPORT_FORMAT.builder()
+                .setHeader(headers.toArray(new String[0]))
+                .setSkipHeaderRecord(false)
+                .build();
+        return new CSVParser(reader, format, position, 1);
     }
 
     @Transactional(rollbackFor = Exception.class)
-    public ImportResult importExcel(String database, String tableName,
-                                    boolean truncateFirst, MultipartFile file) throws IOException {
+    public ImportResult importExcel(String database, String tableName, boolean truncateFirst,
+                                    ImportOptions options, MultipartFile file) throws IOException {
+        ImportCheckpoint checkpoint = createCheckpoint(database, tableName, ImportType.EXCEL, options, file);
+        return importExcel(database, tableName, truncateFirst, options, checkpointSource(file, checkpoint), checkpoint,
+                new ImportProgress());
+    }
+
+    /**
+     * Excel导入，checkpoint不为空时分段提交并跳过检查点之前的行
+     */
+    private ImportResult importExcel(String database, String tableName, boolean truncateFirst, ImportOptions options,
+                                     InputStreamSource file, ImportCheckpoint checkpoint, ImportProgress progress)
+            throws IOException {
+        return importRecords(database, tableName, truncateFirst, options, checkpoint, progress, "Excel导入",
+                (insertSql, columnInfos, errors) -> importExcelRows(file, insertSql, columnInfos, options,
+                        checkpoint, progress, errors));
+    }
+
+    /**
+     * 导入Excel、JSON等逐行读取的文件：校验表、按需清空后执行rows，汇总结果并记录审计
+     */
+    private ImportResult importRecords(String database, String tableName, boolean truncateFirst, ImportOptions options,
+                                       ImportCheckpoint checkpoint, ImportProgress progress, String description,
+                                       RecordImport rows)
+            throws IOException {
         long startTime = System.currentTimeMillis();
         ImportResult result = new ImportResult();
-        List<Map<String, Object>> errorDetails = new ArrayList<>();
+        OperationLog audit = jobAuditService.start(LogOperation.OperationType.IMPORT, database, tableName,
+                checkpointDescription(description, checkpoint));
+        ImportErrorCollector errors = importErrorReportService.createCollector();
+        Throwable failure = null;
 
         try {
             if (StringUtils.hasText(database)) {
@@ -265,131 +737,456 @@ public class DataImportExportService {
             validateTableExists(tableName);
 
             // 使用 DatabaseService 获取表结构
-            List<Map<String, Object>> columnInfos = databaseService.getTableStructure(tableName);
-            List<String> tableColumns = columnInfos.stream()
-                    .map(column -> (String) column.get(Constant.COLUMN_NAME))
-                    .collect(Collectors.toList());
+            List<Map<String, Object>> columnInfos = databaseService.getTableStructure(tableName, false);
+            InsertSqlBuilder insertSql = createInsertSqlBuilder(tableName, columnInfos, options);
 
             // 清空表数据
             if (truncateFirst) {
                 truncateTable(tableName);
             }
 
-            try (Workbook workbook = WorkbookFactory.create(file.getInputStream())) {
-                Sheet sheet = workbook.getSheetAt(0);
-                Iterator<Row> rowIterator = sheet.iterator();
+            long importedRows = rows.run(insertSql, columnInfos, errors);
+
+            setImportedRows(result, importedRows, errors.getErrorCount(), checkpoint);
 
-                // 读取表头
-                if (!rowIterator.hasNext()) {
-                    throw new DbException("Excel文件为空");
+        } catch (IOException | RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            result.setCostTime(System.currentTimeMillis() - startTime);
+            finishErrors(result, errors, checkpoint, progress, failure);
+            finishImportAudit(audit, result, startTime, failure);
+            endCheckpoint(checkpoint, failure);
+            DatabaseContextHolder.clear();
+        }
+
+        return result;
+    }
+
+    /**
+     * 逐行读取Excel并提交到导入流水线，第一行为表头
+     */
+    private long importExcelRows(InputStreamSource file, InsertSqlBuilder insertSql,
+                                 List<Map<String, Object>> columnInfos, ImportOptions options,
+                                 ImportCheckpoint checkpoint, ImportProgress progress,
+                                 ImportErrorCollector errors) throws IOException {
+        long resumeRow = checkpoint != null ? checkpoint.getPosition() : -1;
+        List<String> headers = new ArrayList<>();
+        return batchInsert(insertSql, options, headers, errors, checkpoint, progress, pipeline -> {
+            List<String> columns = new ArrayList<>();
+            List<ImportPipeline.RowConverter<List<String>>> converter = new ArrayList<>(1);
+
+            readExcelRows(file, (rowIndex, values) -> {
+                if (columns.isEmpty()) {
+                    headers.addAll(values);
+                    columns.addAll(resolveInsertColumns(columnInfos, headers));
+                    converter.add(recordConverter(columnInfos, columns, resolveColumnIndexes(columns, headers)));
+                    return;
+                }
+                if (rowIndex <= resumeRow) {
+                    return;
                 }
+                // 读取器会复用行列表，提交副本
+                pipeline.submit(columns, converter.get(0), new ArrayList<>(values), rowIndex);
+            });
+        });
+    }
+
+    private boolean isOoxml(InputStreamSource file) throws IOException {
+        try (InputStream inputStream = FileMagic.prepareToCheckMagic(file.getInputStream())) {
+            return FileMagic.valueOf(inputStream) == FileMagic.OOXML;
+        }
+    }
+
+    /**
+     * 逐行读取Excel第一个工作表，第一次回调为表头，行列表可能被复用。
+     * xlsx按事件模型流式读取：上传内容先落临时文件（分段导入直接使用检查点保存的文件），
+     * POI按zip条目随机读取，不整体加载到内存；xls仍使用用户模型
+     */
+    private void readExcelRows(InputStreamSource file, XlsxStreamReader.RowHandler handler)
+            throws IOException, SQLException {
+        if (!isOoxml(file)) {
+            readWorkbookRows(file, handler);
+            return;
+        }
 
-                Row headerRow = rowIterator.next();
-                List<String> headers = new ArrayList<>();
-                for (Cell cell : headerRow) {
-                    headers.add(getCellValue(cell));
+        Path tempFile = null;
+        try {
+            File xlsxFile;
+            if (file instanceof FileSystemResource) {
+                xlsxFile = ((FileSystemResource) file).getFile();
+            } else {
+                tempFile = Files.createTempFile("import-", ".xlsx");
+                try (InputStream inputStream = file.getInputStream()) {
+                    Files.copy(inputStream, tempFile, StandardCopyOption.REPLACE_EXISTING);
                 }
+                xlsxFile = tempFile.toFile();
+            }
 
-                List<Map<String, String>> records = new ArrayList<>();
-                AtomicInteger successCount = new AtomicInteger(0);
+            boolean[] empty = {true};
+            XlsxStreamReader.read(xlsxFile, (rowIndex, values) -> {
+                empty[0] = false;
+                handler.handle(rowIndex, values);
+            });
+            if (empty[0]) {
+                throw new DbException("Excel文件为空");
+            }
+        } finally {
+            if (tempFile != null) {
+                Files.deleteIfExists(tempFile);
+            }
+        }
+    }
 
-                // 读取数据行
-                while (rowIterator.hasNext()) {
-                    Row row = rowIterator.next();
-                    Map<String, String> stringMap = new HashMap<>();
+    /**
+     * 用户模型读取，用于xls；数据行按表头列数取值
+     */
+    private void readWorkbookRows(InputStreamSource file, XlsxStreamReader.RowHandler handler)
+            throws IOException, SQLException {
+        try (Workbook workbook = WorkbookFactory.create(file.getInputStream())) {
+            Sheet sheet = workbook.getSheetAt(0);
+            Iterator<Row> rowIterator = sheet.iterator();
+
+            // 读取表头
+            if (!rowIterator.hasNext()) {
+                throw new DbException("Excel文件为空");
+            }
 
-                    for (int i = 0; i < headers.size(); i++) {
-                        Cell cell = row.getCell(i, Row.MissingCellPolicy.CREATE_NULL_AS_BLANK);
-                        stringMap.put(headers.get(i), getCellValue(cell));
-                    }
+            Row headerRow = rowIterator.next();
+            List<String> headers = new ArrayList<>();
+            for (Cell cell : headerRow) {
+                headers.add(getCellValue(cell));
+            }
+            handler.handle(headerRow.getRowNum(), headers);
 
-                    records.add(stringMap);
+            // 读取数据行
+            while (rowIterator.hasNext()) {
+                Row row = rowIterator.next();
+                List<String> values = new ArrayList<>(headers.size());
 
-                    // 批量处理
-                    if (records.size() >= BATCH_SIZE) {
-                        processBatch(tableName, tableColumns, records,
-                                successCount, errorDetails);
-                        records.clear();
-                    }
+                for (int i = 0; i < headers.size(); i++) {
+                    Cell cell = row.getCell(i, Row.MissingCellPolicy.CREATE_NULL_AS_BLANK);
+                    values.add(getCellValue(cell));
                 }
 
-                // 处理剩余记录
-                if (!records.isEmpty()) {
-                    processBatch(tableName, tableColumns, records,
-                            successCount, errorDetails);
+                handler.handle(row.getRowNum(), values);
+            }
+        }
+    }
+
+    /**
+     * JSON导入，支持对象数组和NDJSON
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public ImportResult importJson(String database, String tableName, boolean truncateFirst,
+                                   ImportOptions options, MultipartFile file) throws IOException {
+        ImportCheckpoint checkpoint = createCheckpoint(database, tableName, ImportType.JSON, options, file);
+        return importJson(database, tableName, truncateFirst, options, checkpointSource(file, checkpoint), checkpoint,
+                new ImportProgress());
+    }
+
+    /**
+     * JSON导入，checkpoint不为空时分段提交并跳过检查点之前的对象
+     */
+    private ImportResult importJson(String database, String tableName, boolean truncateFirst, ImportOptions options,
+                                    InputStreamSource file, ImportCheckpoint checkpoint, ImportProgress progress)
+            throws IOException {
+        return importRecords(database, tableName, truncateFirst, options, checkpoint, progress, "JSON导入",
+                (insertSql, columnInfos, errors) -> importJsonRecords(file, insertSql, columnInfos, options,
+                        checkpoint, progress, errors));
+    }
+
+    /**
+     * 逐个读取JSON对象并提交到导入流水线，第一个对象的字段名作为表头，检查点位置为对象序号
+     */
+    private long importJsonRecords(InputStreamSource file, InsertSqlBuilder insertSql,
+                                   List<Map<String, Object>> columnInfos, ImportOptions options,
+                                   ImportCheckpoint checkpoint, ImportProgress progress,
+                                   ImportErrorCollector errors) throws IOException {
+        long resumeRecord = checkpoint != null ? checkpoint.getPosition() : -1;
+        try (JsonRecordReader jsonReader = openJsonReader(file)) {
+            List<String> firstValues = jsonReader.readHeaders();
+            if (firstValues == null) {
+                throw new DbException("JSON文件为空");
+            }
+            List<String> headers = jsonReader.getHeaders();
+            List<String> columns = resolveInsertColumns(columnInfos, headers);
+            ImportPipeline.RowConverter<List<String>> converter =
+                    recordConverter(columnInfos, columns, resolveColumnIndexes(columns, headers));
+
+            return batchInsert(insertSql, options, headers, errors, checkpoint, progress, pipeline -> {
+                for (List<String> values = firstValues; values != null; values = jsonReader.next()) {
+                    if (jsonReader.getRecordNumber() > resumeRecord) {
+                        pipeline.submit(columns, converter, values, jsonReader.getRecordNumber());
+                    }
                 }
+            });
+        }
+    }
+
+    /**
+     * 以流式JsonParser打开JSON文件，跳过开头的BOM
+     */
+    private static JsonRecordReader openJsonReader(InputStreamSource file) throws IOException {
+        return new JsonRecordReader(JSON_OBJECT_MAPPER.createParser(openUtf8Reader(file.getInputStream())));
+    }
 
-                result.setImportedRows(successCount.get());
-                result.setErrorRows(errorDetails.size());
+    /**
+     * 服务端目录CSV导入
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public ImportResult importDropCsv(String database, String tableName, boolean truncateFirst,
+                                      ImportOptions options, String fileName) throws IOException {
+        return importDropCsv(database, tableName, truncateFirst, options, fileName, new ImportProgress());
+    }
+
+    /**
+     * 服务端目录CSV导入：文件内存映射后按记录边界切分，各区段并行解析后共用一条导入流水线写入。
+     * 直接读取目录中的文件，不经过上传和检查点拷贝，因此不支持分段提交
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public ImportResult importDropCsv(String database, String tableName, boolean truncateFirst, ImportOptions options,
+                                      String fileName, ImportProgress progress) throws IOException {
+        if (options.getCommitInterval() > 0) {
+            throw new IllegalArgumentException("服务端目录导入不支持分段提交");
+        }
+        Path path = importDropDirService.resolve(fileName);
+        return importRecords(database, tableName, truncateFirst, options, null, progress,
+                "服务端目录CSV导入: " + fileName,
+                (insertSql, columnInfos, errors) -> importMappedCsv(path, insertSql, columnInfos, options,
+                        progress, errors));
+    }
+
+    /**
+     * 并行解析内存映射的CSV文件并提交到导入流水线，每个解析线程使用独立的读取端
+     */
+    private long importMappedCsv(Path path, InsertSqlBuilder insertSql, List<Map<String, Object>> columnInfos,
+                                 ImportOptions options, ImportProgress progress, ImportErrorCollector errors)
+            throws IOException {
+        try (MappedCsvReader csvReader = new MappedCsvReader(path)) {
+            List<String> headers = csvReader.getHeaders();
+            if (headers.isEmpty()) {
+                throw new DbException("CSV文件为空");
             }
+            List<String> columns = resolveInsertColumns(columnInfos, headers);
+            ImportPipeline.RowConverter<List<String>> converter =
+                    recordConverter(columnInfos, columns, resolveColumnIndexes(columns, headers));
+            // 按文件顺序写入时只能由一个线程提交
+            int parserThreads = options.isPreserveOrder() ? 1 : options.getParserThreads();
+
+            return batchInsert(insertSql, options, headers, errors, null, progress, pipeline ->
+                    csvReader.read(parserThreads, records -> {
+                        if (parserThreads == 1) {
+                            for (CSVRecord csvRecord : records) {
+                                pipeline.submit(columns, converter, csvRecord.toList());
+                            }
+                            return;
+                        }
+                        ImportPipeline<List<String>>.Feeder feeder = pipeline.newFeeder();
+                        for (CSVRecord csvRecord : records) {
+                            feeder.submit(columns, converter, csvRecord.toList());
+                        }
+                        feeder.flush();
+                    }));
+        }
+    }
 
+    /**
+     * CSV预校验：按表结构并行校验每一行的类型、长度、非空和枚举取值，不写入目标表
+     */
+    public ImportValidationResult validateCsv(String database, String tableName, MultipartFile file)
+            throws IOException {
+        long startTime = System.currentTimeMillis();
+        ImportValidationResult result = new ImportValidationResult();
+        try {
+            List<Map<String, Object>> columnInfos = getValidationColumns(database, tableName);
+            try (Reader reader = openUtf8Reader(file.getInputStream());
+                 CSVParser csvParser = new CSVParser(reader, CSV_IMPORT_FORMAT);
+                 ImportValidator validator = createImportValidator(columnInfos, csvParser.getHeaderNames(), result)) {
+                long rowNumber = 0;
+                for (CSVRecord csvRecord : csvParser) {
+                    validator.submit(csvRecord.toList(), ++rowNumber);
+                }
+                validator.finish(result);
+            }
+            return finishValidation(result, startTime);
         } finally {
-            result.setCostTime(System.currentTimeMillis() - startTime);
-            if (!errorDetails.isEmpty()) {
-                Map<String, Object> errorMap = new HashMap<>();
-                errorMap.put(Constant.ERRORS, errorDetails);
-                result.setErrorDetails(errorMap);
+            DatabaseContextHolder.clear();
+        }
+    }
+
+    /**
+     * Excel预校验，规则同{@link #validateCsv}
+     */
+    public ImportValidationResult validateExcel(String database, String tableName, MultipartFile file)
+            throws IOException {
+        long startTime = System.currentTimeMillis();
+        ImportValidationResult result = new ImportValidationResult();
+        List<ImportValidator> validator = new ArrayList<>(1);
+        try {
+            List<Map<String, Object>> columnInfos = getValidationColumns(database, tableName);
+            readExcelRows(file, (rowIndex, values) -> {
+                if (validator.isEmpty()) {
+                    validator.add(createImportValidator(columnInfos, new ArrayList<>(values), result));
+                    return;
+                }
+                validator.get(0).submit(new ArrayList<>(values), rowIndex);
+            });
+            validator.get(0).finish(result);
+            return finishValidation(result, startTime);
+        } catch (SQLException e) {
+            throw new DbException("读取Excel失败: " + e.getMessage(), e);
+        } finally {
+            if (!validator.isEmpty()) {
+                validator.get(0).close();
+            }
+            DatabaseContextHolder.clear();
+        }
+    }
+
+    /**
+     * JSON预校验，规则同{@link #validateCsv}
+     */
+    public ImportValidationResult validateJson(String database, String tableName, MultipartFile file)
+            throws IOException {
+        long startTime = System.currentTimeMillis();
+        ImportValidationResult result = new ImportValidationResult();
+        try {
+            List<Map<String, Object>> columnInfos = getValidationColumns(database, tableName);
+            try (JsonRecordReader jsonReader = openJsonReader(file)) {
+                List<String> firstValues = jsonReader.readHeaders();
+                if (firstValues == null) {
+                    throw new DbException("JSON文件为空");
+                }
+                try (ImportValidator validator = createImportValidator(columnInfos, jsonReader.getHeaders(), result)) {
+                    for (List<String> values = firstValues; values != null; values = jsonReader.next()) {
+                        validator.submit(values, jsonReader.getRecordNumber());
+                    }
+                    validator.finish(result);
+                }
             }
+            return finishValidation(result, startTime);
+        } finally {
             DatabaseContextHolder.clear();
         }
+    }
+
+    private List<Map<String, Object>> getValidationColumns(String database, String tableName) {
+        if (StringUtils.hasText(database)) {
+            DatabaseContextHolder.setDatabase(database);
+        }
+        validateTableExists(tableName);
+        return databaseService.getTableStructure(tableName, false);
+    }
+
+    /**
+     * 按表头创建校验器，同时检查文件级问题：表中不存在的表头会被忽略，
+     * 非空且无默认值的列不在文件中时每一行都会插入失败
+     */
+    private ImportValidator createImportValidator(List<Map<String, Object>> columnInfos, List<String> headers,
+                                                  ImportValidationResult result) {
+        List<String> columns = resolveInsertColumns(columnInfos, headers);
+        Set<String> columnSet = columns.stream().map(String::toLowerCase).collect(Collectors.toSet());
+        for (String header : headers) {
+            if (header != null && !columnSet.contains(header.trim().toLowerCase())) {
+                result.getIgnoredColumns().add(header);
+            }
+        }
+
+        Map<String, ColumnValidator> columnValidators = new HashMap<>();
+        for (Map<String, Object> columnInfo : columnInfos) {
+            ColumnValidator columnValidator = ColumnValidator.of(columnInfo);
+            if (columnSet.contains(columnValidator.getColumnName().toLowerCase())) {
+                columnValidators.put(columnValidator.getColumnName(), columnValidator);
+            } else if (columnValidator.isRequiredWithoutDefault()) {
+                result.getFileErrors().add("缺少非空且无默认值的列: " + columnValidator.getColumnName());
+            }
+        }
+        ColumnValidator[] validators = columns.stream().map(columnValidators::get).toArray(ColumnValidator[]::new);
+        return new ImportValidator(validators, resolveColumnIndexes(columns, headers),
+                MAX_VALIDATION_SAMPLES, ForkJoinPool.commonPool());
+    }
 
+    private ImportValidationResult finishValidation(ImportValidationResult result, long startTime) {
+        result.setValid(result.getFileErrors().isEmpty() && result.getErrorRows() == 0);
+        result.setCostTime(System.currentTimeMillis() - startTime);
         return result;
     }
 
     @Transactional(rollbackFor = Exception.class)
-    public ImportResult importSql(String database, MultipartFile file) throws IOException {
+    public ImportResult importSql(String database, ImportOptions options, MultipartFile file) throws IOException {
+        ImportCheckpoint checkpoint = createCheckpoint(database, null, ImportType.SQL, options, file);
+        return importSql(database, options, file.getOriginalFilename(), checkpointSource(file, checkpoint), checkpoint,
+                new ImportProgress());
+    }
+
+    /**
+     * 从检查点续传分段提交的导入
+     */
+    public ImportResult resumeImport(String checkpointId) throws IOException {
+        ImportCheckpoint checkpoint = importCheckpointService.begin(checkpointId);
+        InputStreamSource file = new FileSystemResource(importCheckpointService.getDataFile(checkpoint));
+        log.info("续传导入: checkpointId={}, table={}, position={}",
+                checkpointId, checkpoint.getTableName(), checkpoint.getPosition());
+
+        return importFile(checkpoint.getImportType(), checkpoint.getDatabase(), checkpoint.getTableName(), false,
+                checkpoint.getOptions(), checkpoint.getFileName(), file, checkpoint, new ImportProgress());
+    }
+
+    /**
+     * 导入已保存的文件，供后台导入任务调用
+     *
+     * @param checkpoint 分段提交的检查点，为空时整个导入在当前事务中完成
+     * @param progress   进度计数，取消后导入在下一行或下一条语句处中止
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public ImportResult importFile(ImportType importType, String database, String tableName, boolean truncateFirst,
+                                   ImportOptions options, String fileName, InputStreamSource file,
+                                   ImportCheckpoint checkpoint, ImportProgress progress) throws IOException {
+        switch (importType) {
+            case CSV:
+                return importCsv(database, tableName, truncateFirst, options, file, checkpoint, progress);
+            case EXCEL:
+                return importExcel(database, tableName, truncateFirst, options, file, checkpoint, progress);
+            case JSON:
+                return importJson(database, tableName, truncateFirst, options, file, checkpoint, progress);
+            default:
+                return importSql(database, options, fileName, file, checkpoint, progress);
+        }
+    }
+
+    /**
+     * SQL导入：从文件流逐条切分语句执行，checkpoint不为空时分段提交并跳过检查点之前的语句
+     */
+    private ImportResult importSql(String database, ImportOptions options, String fileName, InputStreamSource file,
+                                   ImportCheckpoint checkpoint, ImportProgress progress) throws IOException {
         long startTime = System.currentTimeMillis();
         ImportResult result = new ImportResult();
+        OperationLog audit = jobAuditService.start(LogOperation.OperationType.IMPORT, database,
+                null, checkpointDescription("SQL导入: " + fileName, checkpoint));
+        ImportErrorCollector errors = importErrorReportService.createCollector();
+        Throwable failure = null;
 
         try {
             if (StringUtils.hasText(database)) {
                 DatabaseContextHolder.setDatabase(database);
             }
 
-            String sqlContent = new String(file.getBytes(), StandardCharsets.UTF_8);
-
-            // 分割SQL语句
-            String[] sqlStatements = sqlContent.split(";\\s*\n");
-
-            int successCount = 0;
-            int errorCount = 0;
-            List<Map<String, Object>> errorDetails = new ArrayList<>();
-
-            for (String sql : sqlStatements) {
-                sql = sql.trim();
-                if (sql.isEmpty()) {
-                    continue;
-                }
-
-                try {
-                    // 使用 DatabaseService 执行SQL
-                    Map<String, Object> executeResult = databaseService.executeQuery(sql);
-                    if (Boolean.TRUE.equals(executeResult.getOrDefault(Constant.SUCCESS, false))) {
-                        successCount++;
-                    } else {
-                        errorCount++;
-                        Map<String, Object> errorDetail = createSqlErrorDetail(sql,
-                                (String) executeResult.get(Constant.MESSAGE));
-                        errorDetails.add(errorDetail);
-                    }
-                } catch (Exception e) {
-                    errorCount++;
-                    Map<String, Object> errorDetail = createSqlErrorDetail(sql, e.getMessage());
-                    errorDetails.add(errorDetail);
-                    log.error("执行SQL失败: {}", sql, e);
-                }
+            long successCount;
+            try (SqlScriptReader scriptReader = new SqlScriptReader(openUtf8Reader(file.getInputStream()))) {
+                successCount = executeSqlScript(scriptReader, options, checkpoint, progress, errors);
             }
 
-            result.setImportedRows(successCount);
-            result.setErrorRows(errorCount);
-            if (!errorDetails.isEmpty()) {
-                Map<String, Object> errorMap = new HashMap<>();
-                errorMap.put(Constant.ERRORS, errorDetails);
-                result.setErrorDetails(errorMap);
-            }
+            setImportedRows(result, successCount, errors.getErrorCount(), checkpoint);
 
+        } catch (IOException | RuntimeException e) {
+            failure = e;
+            throw e;
         } finally {
             result.setCostTime(System.currentTimeMillis() - startTime);
+            finishErrors(result, errors, checkpoint, progress, failure);
+            finishImportAudit(audit, result, startTime, failure);
+            endCheckpoint(checkpoint, failure);
             DatabaseContextHolder.clear();
         }
 
@@ -397,173 +1194,348 @@ public class DataImportExportService {
     }
 
     /**
-     * 创建SQL错误详情
+     * 执行SQL脚本，连续INSERT同一张表的语句按批执行
+     * <p>
+     * 不分段时连接参与当前事务；分段时使用独立连接，每commitInterval条语句提交一次并保存检查点
+     *
+     * @return 本次执行成功的语句数
      */
-    private Map<String, Object> createSqlErrorDetail(String sql, String errorMessage) {
-        Map<String, Object> errorDetail = new HashMap<>();
-        errorDetail.put("sql", sql);
-        errorDetail.put(ERROR_COLUMN, errorMessage);
-        return errorDetail;
+    private long executeSqlScript(SqlScriptReader scriptReader, ImportOptions options, ImportCheckpoint checkpoint,
+                                  ImportProgress progress, ImportErrorCollector errors)
+            throws IOException {
+        DataSource dataSource = databaseService.getCurrentDataSource();
+        Connection connection = null;
+        boolean success = false;
+        try {
+            connection = checkpoint == null ? DataSourceUtils.getConnection(dataSource) : dataSource.getConnection();
+            if (checkpoint != null) {
+                connection.setAutoCommit(false);
+            }
+            try (SqlScriptExecutor executor = new SqlScriptExecutor(connection, options.getBatchSize(),
+                    databaseService::isUnsafeStatement,
+                    (sql, type, message) -> {
+                        progress.addFailed(1);
+                        errors.add(SQL_REPORT_COLUMNS, Collections.singletonList(sql), type, message);
+                    })) {
+                long resumeIndex = checkpoint != null ? checkpoint.getPosition() : -1;
+                long index = -1;
+                long uncommitted = 0;
+                long committedSuccess = 0;
+                String sql;
+                while ((sql = scriptReader.next()) != null) {
+                    index++;
+                    if (index <= resumeIndex) {
+                        continue;
+                    }
+                    progress.checkCancelled();
+                    progress.addRead(1);
+                    long before = executor.getSuccessCount();
+                    executor.execute(sql);
+                    progress.addImported(executor.getSuccessCount() - before);
+                    uncommitted++;
+                    if (checkpoint != null && uncommitted >= options.getCommitInterval()) {
+                        before = executor.getSuccessCount();
+                        executor.flush();
+                        progress.addImported(executor.getSuccessCount() - before);
+                        connection.commit();
+                        updateCheckpoint(checkpoint, uncommitted, executor.getSuccessCount() - committedSuccess, index);
+                        committedSuccess = executor.getSuccessCount();
+                        uncommitted = 0;
+                    }
+                }
+                long before = executor.getSuccessCount();
+                executor.flush();
+                progress.addImported(executor.getSuccessCount() - before);
+                if (checkpoint != null && uncommitted > 0) {
+                    connection.commit();
+                    updateCheckpoint(checkpoint, uncommitted, executor.getSuccessCount() - committedSuccess, index);
+                }
+                success = true;
+                return executor.getSuccessCount();
+            }
+        } catch (SQLException e) {
+            throw new DbException("执行SQL脚本失败: " + e.getMessage(), e);
+        } finally {
+            if (checkpoint == null) {
+                DataSourceUtils.releaseConnection(connection, dataSource);
+            } else if (connection != null) {
+                closeOwnConnections(Collections.singletonList(connection), success);
+            }
+        }
     }
 
     /**
-     * 构建导出SQL
+     * 开启分段提交时保存上传文件并创建检查点，否则返回null
      */
-    private String buildExportSql(String tableName, String whereClause) {
-        StringBuilder sql = new StringBuilder("SELECT * FROM ");
-        sql.append(tableName);
-
-        if (StringUtils.hasText(whereClause)) {
-            sql.append(" WHERE ").append(whereClause);
+    private ImportCheckpoint createCheckpoint(String database, String tableName, ImportType importType,
+                                              ImportOptions options, MultipartFile file) throws IOException {
+        if (options.getCommitInterval() <= 0) {
+            return null;
         }
-
-        return sql.toString();
+        return importCheckpointService.create(database, tableName, importType, options, file);
     }
 
     /**
-     * 导出为Excel
+     * 分段提交时从检查点保存的文件读取，保证续传时读取的是同一份内容
      */
-    private Resource exportToExcel(List<Map<String, Object>> data, String tableName) throws IOException {
-        try (Workbook workbook = new XSSFWorkbook();
-             ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
-
-            if (data.isEmpty()) {
-                Sheet sheet = workbook.createSheet(tableName);
-                Row headerRow = sheet.createRow(0);
-                headerRow.createCell(0).setCellValue("无数据");
-                workbook.write(outputStream);
-                return new ByteArrayResource(outputStream.toByteArray());
-            }
-
-            Sheet sheet = workbook.createSheet(tableName);
+    private InputStreamSource checkpointSource(MultipartFile file, ImportCheckpoint checkpoint) {
+        return checkpoint == null ? file : new FileSystemResource(importCheckpointService.getDataFile(checkpoint));
+    }
 
-            // 创建表头
-            Set<String> headers = data.get(0).keySet();
-            Row headerRow = sheet.createRow(0);
-            int colIndex = 0;
-            for (String header : headers) {
-                Cell cell = headerRow.createCell(colIndex++);
-                cell.setCellValue(header);
-            }
+    private String checkpointDescription(String description, ImportCheckpoint checkpoint) {
+        return checkpoint == null ? description : description + "（分段提交，检查点" + checkpoint.getCheckpointId() + "）";
+    }
 
-            // 填充数据
-            int rowNum = 1;
-            for (Map<String, Object> rowData : data) {
-                Row row = sheet.createRow(rowNum++);
-                colIndex = 0;
-                for (String header : headers) {
-                    Cell cell = row.createCell(colIndex++);
-                    setCellValue(cell, rowData.get(header));
-                }
-            }
+    /**
+     * 一次提交完成后累加检查点统计并持久化
+     */
+    private void updateCheckpoint(ImportCheckpoint checkpoint, long records, long inserted,
+                                  long position) throws IOException {
+        checkpoint.setPosition(position);
+        checkpoint.setRecordsDone(checkpoint.getRecordsDone() + records);
+        checkpoint.setImportedRows(checkpoint.getImportedRows() + inserted);
+        checkpoint.setErrorRows(checkpoint.getErrorRows() + records - inserted);
+        importCheckpointService.save(checkpoint);
+    }
 
-            workbook.write(outputStream);
-            return new ByteArrayResource(outputStream.toByteArray());
+    private void endCheckpoint(ImportCheckpoint checkpoint, Throwable failure) {
+        if (checkpoint != null) {
+            importCheckpointService.end(checkpoint, failure);
         }
     }
 
     /**
-     * 导出为CSV
+     * 分段提交时返回包含之前各次执行的累计行数
      */
-    private Resource exportToCsv(List<Map<String, Object>> data) throws IOException {
-        try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-             Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
-             CSVPrinter csvPrinter = new CSVPrinter(writer, CSVFormat.DEFAULT)) {
+    private void setImportedRows(ImportResult result, long importedRows, long errorRows, ImportCheckpoint checkpoint) {
+        if (checkpoint != null) {
+            result.setCheckpointId(checkpoint.getCheckpointId());
+            importedRows = checkpoint.getImportedRows();
+            errorRows = checkpoint.getErrorRows();
+        }
+        result.setImportedRows((int) importedRows);
+        result.setErrorRows((int) errorRows);
+    }
 
-            if (data.isEmpty()) {
-                csvPrinter.printRecord("无数据");
-                csvPrinter.flush();
-                return new ByteArrayResource(outputStream.toByteArray());
-            }
+    private void finishImportAudit(OperationLog audit, ImportResult result, long startTime, Throwable failure) {
+        jobAuditService.finish(audit, result.getImportedRows(), result.getErrorRows(),
+                System.currentTimeMillis() - startTime, failure);
+    }
 
-            // 写入表头
-            Set<String> headers = data.get(0).keySet();
-            csvPrinter.printRecord(headers);
+    /**
+     * 关闭错误收集器，把错误样例、各类错误计数和错误报告ID写入结果。
+     * 分段提交的导入失败时同样保留报告，报告ID记入检查点和进度
+     */
+    private void finishErrors(ImportResult result, ImportErrorCollector errors, ImportCheckpoint checkpoint,
+                              ImportProgress progress, Throwable failure) {
+        String reportId = importErrorReportService.finish(errors, failure == null || checkpoint != null);
+        result.setErrorReportId(reportId);
+        progress.setErrorReportId(reportId);
+        if (checkpoint != null) {
+            checkpoint.setErrorReportId(reportId);
+        }
+        if (errors.getErrorCount() > 0) {
+            Map<String, Object> errorMap = new HashMap<>();
+            errorMap.put(Constant.ERRORS, errors.getSamples());
+            result.setErrorDetails(errorMap);
+            result.setErrorCounts(errors.getCounts());
+        }
+    }
 
-            // 写入数据
-            for (Map<String, Object> rowData : data) {
-                List<Object> rowValues = new ArrayList<>();
-                for (String header : headers) {
-                    rowValues.add(rowData.get(header));
-                }
-                csvPrinter.printRecord(rowValues);
-            }
+    /**
+     * 按主键区间并行导出，表没有单列整型主键时回退为串行导出
+     */
+    private long parallelExport(ExportRequest request, String sql, ExportWriter writer) throws IOException {
+        String tableName = request.getTableName();
+        String keyColumn = findRangeKeyColumn(tableName);
+        if (keyColumn == null) {
+            log.warn("表{}没有单列整型主键，回退为串行导出", tableName);
+            return streamExport(sql, writer);
+        }
 
-            csvPrinter.flush();
-            return new ByteArrayResource(outputStream.toByteArray());
+        String whereClause = request.getWhereClause();
+        DataSource dataSource = databaseService.getCurrentDataSource();
+        String rangeSql = String.format("SELECT MIN(%s) AS min_key, MAX(%s) AS max_key FROM %s%s",
+                keyColumn, keyColumn, tableName,
+                StringUtils.hasText(whereClause) ? " WHERE " + whereClause : "");
+        Map<String, Object> range = new JdbcTemplate(dataSource).queryForMap(rangeSql);
+        Object minKey = range.get("min_key");
+        Object maxKey = range.get("max_key");
+        if (!(minKey instanceof Number) || !(maxKey instanceof Number)) {
+            // 无数据，直接串行导出以写出表头
+            return streamExport(sql, writer);
         }
+
+        String selectList = buildSelectList(request);
+        List<String> chunkSqls = buildRangeSqls(tableName, selectList, whereClause, keyColumn,
+                toBigInteger((Number) minKey), toBigInteger((Number) maxKey),
+                request.getParallelism() * CHUNKS_PER_WORKER);
+        log.info("并行导出: table={}, key={}, range=[{}, {}], chunks={}",
+                tableName, keyColumn, minKey, maxKey, chunkSqls.size());
+
+        String metaSql = "SELECT " + selectList + " FROM " + tableName + " WHERE 1 = 0";
+        ParallelRangeExporter exporter = new ParallelRangeExporter(dataSource, request.getParallelism(),
+                request.isConsistentSnapshot() ? tableName : null);
+        return exporter.export(metaSql, chunkSqls, writer);
     }
 
     /**
-     * 导出为JSON - 使用配置好的ObjectMapper
+     * 查找可用于区间拆分的单列整型主键
      */
-    private Resource exportToJson(List<Map<String, Object>> data) throws IOException {
-        String json = JSON_OBJECT_MAPPER.writeValueAsString(data);
-        return new ByteArrayResource(json.getBytes(StandardCharsets.UTF_8));
+    private String findRangeKeyColumn(String tableName) {
+        List<Map<String, Object>> keyColumns = databaseService.getTableStructure(tableName, false).stream()
+                .filter(column -> "PRI".equals(column.get(Constant.COLUMN_KEY)))
+                .collect(Collectors.toList());
+        if (keyColumns.size() != 1) {
+            return null;
+        }
+
+        Map<String, Object> keyColumn = keyColumns.get(0);
+        String columnType = String.valueOf(keyColumn.get(Constant.COLUMN_TYPE)).toLowerCase();
+        boolean integral = RANGE_KEY_TYPES.stream().anyMatch(columnType::startsWith);
+        return integral ? (String) keyColumn.get(Constant.COLUMN_NAME) : null;
     }
 
     /**
-     * 导出为SQL
+     * 将[minKey, maxKey]均分为若干左闭右开区间，最后一个区间包含maxKey。
+     * bigint unsigned的取值超出long范围，全程按BigInteger计算
      */
-    private Resource exportToSql(List<Map<String, Object>> data, String tableName) {
-        StringBuilder sqlBuilder = new StringBuilder();
-        sqlBuilder.append("-- 导出表: ").append(tableName).append("\n");
-        sqlBuilder.append("-- 导出时间: ").append(new Date()).append("\n\n");
+    private List<String> buildRangeSqls(String tableName, String selectList, String whereClause, String keyColumn,
+                                        BigInteger minKey, BigInteger maxKey, int chunkCount) {
+        String baseSql = "SELECT " + selectList + " FROM " + tableName + " WHERE "
+                + (StringUtils.hasText(whereClause) ? "(" + whereClause + ") AND " : "");
+        BigInteger span = maxKey.subtract(minKey).add(BigInteger.ONE);
+        BigInteger step = span.add(BigInteger.valueOf(chunkCount - 1L))
+                .divide(BigInteger.valueOf(chunkCount)).max(BigInteger.ONE);
+
+        List<String> chunkSqls = new ArrayList<>(chunkCount);
+        BigInteger lower = minKey;
+        while (true) {
+            BigInteger upper = lower.add(step);
+            boolean last = upper.compareTo(maxKey) > 0;
+            String condition = last
+                    ? String.format("%s >= %d AND %s <= %d", keyColumn, lower, keyColumn, maxKey)
+                    : String.format("%s >= %d AND %s < %d", keyColumn, lower, keyColumn, upper);
+            chunkSqls.add(baseSql + condition + " ORDER BY " + keyColumn);
+            if (last) {
+                return chunkSqls;
+            }
+            lower = upper;
+        }
+    }
 
-        if (data.isEmpty()) {
-            sqlBuilder.append("-- 无数据\n");
-            return new ByteArrayResource(sqlBuilder.toString().getBytes(StandardCharsets.UTF_8));
+    private static BigInteger toBigInteger(Number value) {
+        if (value instanceof BigInteger) {
+            return (BigInteger) value;
         }
+        if (value instanceof BigDecimal) {
+            return ((BigDecimal) value).toBigInteger();
+        }
+        return BigInteger.valueOf(value.longValue());
+    }
 
-        Set<String> columns = data.get(0).keySet();
+    /**
+     * 构建导出SQL：列投影、过滤、键集起点、排序和行数限制都下推到数据库执行
+     *
+     * @param args 收集起始键的绑定参数
+     */
+    private String buildExportSql(ExportRequest request, List<Object> args) {
+        StringBuilder sql = new StringBuilder("SELECT ");
+        sql.append(buildSelectList(request)).append(" FROM ").append(request.getTableName());
 
-        for (Map<String, Object> row : data) {
-            StringBuilder insertSql = new StringBuilder();
-            insertSql.append("INSERT INTO ").append(tableName).append(" (");
+        List<String> conditions = new ArrayList<>();
+        if (StringUtils.hasText(request.getWhereClause())) {
+            conditions.add("(" + request.getWhereClause() + ")");
+        }
+        List<String> orderBy = request.getOrderBy();
+        if (!CollectionUtils.isEmpty(request.getStartAfter())) {
+            // 行值比较，(a, b) > (?, ?) 可以直接利用排序列上的联合索引定位起点
+            String keyColumns = orderBy.stream().map(this::quoteIdentifier).collect(Collectors.joining(", "));
+            String placeholders = orderBy.stream().map(column -> "?").collect(Collectors.joining(", "));
+            conditions.add(String.format("(%s) %s (%s)", keyColumns,
+                    request.isDescending() ? "<" : ">", placeholders));
+            args.addAll(request.getStartAfter());
+        }
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
 
-            // 列名
-            List<String> columnList = new ArrayList<>(columns);
-            for (int i = 0; i < columnList.size(); i++) {
-                insertSql.append(columnList.get(i));
-                if (i < columnList.size() - 1) {
-                    insertSql.append(", ");
-                }
-            }
-            insertSql.append(") VALUES (");
+        if (!CollectionUtils.isEmpty(orderBy)) {
+            String direction = request.isDescending() ? " DESC" : "";
+            sql.append(" ORDER BY ").append(orderBy.stream()
+                    .map(column -> quoteIdentifier(column) + direction)
+                    .collect(Collectors.joining(", ")));
+        }
 
-            columnRecords(row, columnList, insertSql);
-            insertSql.append(");\n");
+        if (request.getLimit() != null) {
+            sql.append(" LIMIT ").append(request.getLimit());
+        }
 
-            sqlBuilder.append(insertSql);
+        return sql.toString();
+    }
+
+    /**
+     * 导出列清单，未指定时为全部列
+     */
+    private String buildSelectList(ExportRequest request) {
+        if (CollectionUtils.isEmpty(request.getColumns())) {
+            return "*";
         }
+        return request.getColumns().stream().map(this::quoteIdentifier).collect(Collectors.joining(", "));
+    }
 
-        return new ByteArrayResource(sqlBuilder.toString().getBytes(StandardCharsets.UTF_8));
+    private String quoteIdentifier(String identifier) {
+        return "`" + identifier.replace("`", "``") + "`";
     }
 
-    private static void columnRecords(Map<String, Object> row, List<String> columnList, StringBuilder insertSql) {
-        // 值
-        for (int i = 0; i < columnList.size(); i++) {
-            String column = columnList.get(i);
-            Object value = row.get(column);
-            if (value == null) {
-                insertSql.append("NULL");
-            } else if (value instanceof Number) {
-                insertSql.append(value);
-            } else {
-                insertSql.append("'").append(value.toString().replace("'", "''")).append("'");
-            }
+    private boolean isOrderedOrLimited(ExportRequest request) {
+        return !CollectionUtils.isEmpty(request.getOrderBy())
+                || !CollectionUtils.isEmpty(request.getStartAfter())
+                || request.getLimit() != null;
+    }
+
+    /**
+     * 校验导出列、排序列与起始键，并统一为表结构中的列名
+     */
+    private void validateQueryOptions(ExportRequest request) {
+        if (!CollectionUtils.isEmpty(request.getStartAfter())
+                && (CollectionUtils.isEmpty(request.getOrderBy())
+                || request.getStartAfter().size() != request.getOrderBy().size())) {
+            throw new IllegalArgumentException("startAfter需与orderBy的列一一对应");
+        }
+        if (CollectionUtils.isEmpty(request.getColumns()) && CollectionUtils.isEmpty(request.getOrderBy())) {
+            return;
+        }
 
-            if (i < columnList.size() - 1) {
-                insertSql.append(", ");
+        Map<String, String> tableColumns = new HashMap<>();
+        for (Map<String, Object> column : databaseService.getTableStructure(request.getTableName(), false)) {
+            String columnName = (String) column.get(Constant.COLUMN_NAME);
+            tableColumns.put(columnName.toLowerCase(), columnName);
+        }
+        request.setColumns(resolveColumns(request.getColumns(), tableColumns));
+        request.setOrderBy(resolveColumns(request.getOrderBy(), tableColumns));
+    }
+
+    private List<String> resolveColumns(List<String> columns, Map<String, String> tableColumns) {
+        if (CollectionUtils.isEmpty(columns)) {
+            return columns;
+        }
+        List<String> resolved = new ArrayList<>(columns.size());
+        for (String column : columns) {
+            String columnName = column == null ? null : tableColumns.get(column.trim().toLowerCase());
+            if (columnName == null) {
+                throw new IllegalArgumentException("列不存在: " + column);
             }
+            resolved.add(columnName);
         }
+        return resolved;
     }
 
     /**
      * 验证表是否存在 - 通过 DatabaseService 获取所有表
      */
     private void validateTableExists(String tableName) {
-        List<Map<String, Object>> tables = databaseService.getTables();
+        List<Map<String, Object>> tables = databaseService.getTables(false);
         boolean exists = tables.stream()
                 .anyMatch(table -> tableName.equals(table.get("TABLE_NAME")));
 
@@ -577,143 +1549,186 @@ public class DataImportExportService {
      */
     private void truncateTable(String tableName) {
         String sql = "TRUNCATE TABLE " + tableName;
-        databaseService.executeQuery(sql);
+        databaseService.executeWithoutAudit(sql);
     }
 
     /**
-     * 批量处理数据
+     * 通过导入流水线批量写入：调用方线程解析，转换线程池做类型转换，写入线程执行批量插入
+     * <p>
+     * 第一个写入连接参与当前事务；多个写入线程时其余连接各自开启事务，全部成功后提交，
+     * 任一失败时全部回滚，但无法与当前事务保证原子性。
+     * 分段提交时只使用一个独立连接保序写入，每commitInterval条记录提交一次并保存检查点
+     *
+     * @return 本次成功插入的行数
      */
-    private void processBatch(String tableName, List<String> tableColumns,
-                              List<Map<String, String>> records,
-                              AtomicInteger successCount,
-                              List<Map<String, Object>> errorDetails) {
-        List<Map<String, Object>> validRecords = new ArrayList<>();
-
-        for (Map<String, String> stringMap : records) {
-            try {
-                Map<String, Object> stringObjectMap = validateAndConvertRecord(stringMap, tableColumns);
-                validRecords.add(stringObjectMap);
-            } catch (Exception e) {
-                Map<String, Object> errorDetail = new HashMap<>(stringMap);
-                errorDetail.put(ERROR_COLUMN, e.getMessage());
-                errorDetails.add(errorDetail);
+    private long batchInsert(InsertSqlBuilder insertSql, ImportOptions options, List<String> headers,
+                             ImportErrorCollector errors, ImportCheckpoint checkpoint,
+                             ImportProgress progress, BatchWork<List<String>> work) throws IOException {
+        DataSource dataSource = databaseService.getCurrentDataSource();
+        Connection connection = checkpoint == null ? DataSourceUtils.getConnection(dataSource) : null;
+        List<Connection> ownConnections = new ArrayList<>();
+        boolean success = false;
+        try {
+            int ownConnectionCount = checkpoint == null ? options.getWriterThreads() - 1 : 1;
+            for (int i = 0; i < ownConnectionCount; i++) {
+                Connection own = dataSource.getConnection();
+                ownConnections.add(own);
+                own.setAutoCommit(false);
+            }
+            List<Connection> connections = new ArrayList<>();
+            if (connection != null) {
+                connections.add(connection);
+            }
+            connections.addAll(ownConnections);
+
+            try (ImportPipeline<List<String>> pipeline = new ImportPipeline<>(insertSql,
+                    options.getBatchSize(), connections, options.getConverterThreads(),
+                    checkpoint != null || options.isPreserveOrder(),
+                    (row, type, message) -> {
+                        progress.addFailed(1);
+                        errors.add(headers, row, type, message);
+                    }, progress)) {
+                if (checkpoint != null) {
+                    pipeline.enableCommit(options.getCommitInterval(),
+                            (records, inserted, position) -> updateCheckpoint(checkpoint, records, inserted, position));
+                }
+                work.write(pipeline);
+                long insertedRows = pipeline.finish();
+                for (Connection own : ownConnections) {
+                    own.commit();
+                }
+                success = true;
+                return insertedRows;
+            }
+        } catch (SQLException e) {
+            throw new DbException("批量插入失败: " + e.getMessage(), e);
+        } finally {
+            closeOwnConnections(ownConnections, success);
+            if (connection != null) {
+                DataSourceUtils.releaseConnection(connection, dataSource);
             }
         }
-
-        vaildRecord(tableName, records, successCount, errorDetails, validRecords);
     }
 
-    private void vaildRecord(String tableName, List<Map<String, String>> records, AtomicInteger successCount, List<Map<String, Object>> errorDetails, List<Map<String, Object>> validRecords) {
-        if (!validRecords.isEmpty()) {
-            int totalSuccess = 0;
+    /**
+     * 关闭导入自行打开的连接，失败时回滚未提交的部分
+     */
+    private void closeOwnConnections(List<Connection> connections, boolean success) {
+        for (Connection connection : connections) {
             try {
-                // 批量插入
-                for (Map<String, Object> stringObjectMap : validRecords) {
-                    String insertSql = buildInsertSql(tableName, stringObjectMap);
-                    Map<String, Object> result = databaseService.executeQuery(insertSql);
-                    if (Boolean.TRUE.equals(result.getOrDefault(Constant.SUCCESS, false))) {
-                        Integer rows = (Integer) result.get("rows");
-                        totalSuccess += (rows != null ? rows : 0);
-                    }
+                if (!success) {
+                    connection.rollback();
                 }
-                successCount.addAndGet(totalSuccess);
-            } catch (Exception e) {
-                // 记录批量插入失败的错误
-                for (Map<String, String> stringMap : records) {
-                    Map<String, Object> errorDetail = new HashMap<>(stringMap);
-                    errorDetail.put(ERROR_COLUMN, "批量插入失败: " + e.getMessage());
-                    errorDetails.add(errorDetail);
+                connection.setAutoCommit(true);
+            } catch (SQLException e) {
+                log.warn("回滚导入连接失败", e);
+            } finally {
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    log.warn("关闭导入连接失败", e);
                 }
             }
         }
     }
 
     /**
-     * 验证和转换记录
+     * 按表结构为插入列编译转换器，逐行按文件列下标取值转换，空白视为NULL
+     *
+     * @param columnIndexes 与插入列一一对应的文件列下标
      */
-    private Map<String, Object> validateAndConvertRecord(Map<String, String> stringStringMap,
-                                                         List<String> tableColumns) {
-        Map<String, Object> convertedRecord = new HashMap<>();
-
-        for (String columnName : tableColumns) {
-            String value = stringStringMap.get(columnName);
-
-            if (value == null || value.trim().isEmpty()) {
-                convertedRecord.put(columnName, null);
-            } else {
-                convertedRecord.put(columnName, convertValue(value));
-            }
+    private ImportPipeline.RowConverter<List<String>> recordConverter(List<Map<String, Object>> columnInfos,
+                                                                      List<String> columns, int[] columnIndexes) {
+        Map<String, String> columnTypes = new HashMap<>();
+        for (Map<String, Object> columnInfo : columnInfos) {
+            columnTypes.put((String) columnInfo.get(Constant.COLUMN_NAME), (String) columnInfo.get(Constant.COLUMN_TYPE));
         }
-
-        return convertedRecord;
+        ColumnConverter[] converters = columns.stream()
+                .map(column -> ColumnConverters.forColumnType(columnTypes.get(column)))
+                .toArray(ColumnConverter[]::new);
+
+        return row -> {
+            Object[] values = new Object[converters.length];
+            for (int i = 0; i < values.length; i++) {
+                int index = columnIndexes[i];
+                String value = index < row.size() ? row.get(index) : null;
+                if (value == null || (value = value.trim()).isEmpty()) {
+                    continue;
+                }
+                values[i] = converters[i].convert(value);
+                if (values[i] == ColumnConverter.INVALID) {
+                    throw new IllegalArgumentException(String.format("列%s的值'%s'不是有效的%s",
+                            columns.get(i), value, columnTypes.get(columns.get(i))));
+                }
+            }
+            return values;
+        };
     }
 
     /**
-     * 转换值类型
+     * 按导入模式创建插入语句生成器，键列和更新列按表结构校验并统一为表中的列名
      */
-    private Object convertValue(String value) {
-        if (value == null) {
-            return null;
+    private InsertSqlBuilder createInsertSqlBuilder(String tableName, List<Map<String, Object>> columnInfos,
+                                                    ImportOptions options) {
+        if (options.getMode() != ImportMode.UPSERT) {
+            return new InsertSqlBuilder(tableName, options.getMode(), Collections.emptyList(), null);
         }
 
-        String trimmedValue = value.trim();
-
-        // 尝试转换为整数
-        try {
-            return Integer.parseInt(trimmedValue);
-        } catch (NumberFormatException e1) {
-            // 尝试转换为浮点数
-            try {
-                return Double.parseDouble(trimmedValue);
-            } catch (NumberFormatException e2) {
-                // 尝试转换为布尔值
-                if ("true".equalsIgnoreCase(trimmedValue)) {
-                    return true;
-                } else if ("false".equalsIgnoreCase(trimmedValue)) {
-                    return false;
-                }
-                // 返回字符串
-                return trimmedValue;
+        Map<String, String> tableColumns = new HashMap<>();
+        for (Map<String, Object> columnInfo : columnInfos) {
+            String columnName = (String) columnInfo.get(Constant.COLUMN_NAME);
+            tableColumns.put(columnName.toLowerCase(), columnName);
+        }
+        List<String> keyColumns = resolveColumns(options.getKeyColumns(), tableColumns);
+        if (CollectionUtils.isEmpty(keyColumns)) {
+            keyColumns = columnInfos.stream()
+                    .filter(column -> "PRI".equals(column.get(Constant.COLUMN_KEY))
+                            || "UNI".equals(column.get(Constant.COLUMN_KEY)))
+                    .map(column -> (String) column.get(Constant.COLUMN_NAME))
+                    .collect(Collectors.toList());
+            if (keyColumns.isEmpty()) {
+                throw new IllegalArgumentException("表" + tableName + "没有主键或唯一键，UPSERT需指定keyColumns");
             }
         }
+        List<String> updateColumns = resolveColumns(options.getUpdateColumns(), tableColumns);
+        if (CollectionUtils.isEmpty(updateColumns)) {
+            updateColumns = null;
+        }
+        return new InsertSqlBuilder(tableName, ImportMode.UPSERT, keyColumns, updateColumns);
     }
 
     /**
-     * 构建插入SQL
+     * 文件表头中存在的表列（忽略大小写），决定INSERT的列组合；文件中没有的列使用表默认值
      */
-    private String buildInsertSql(String tableName, Map<String, Object> stringObjectMap) {
-        StringBuilder sql = new StringBuilder();
-        sql.append("INSERT INTO ").append(tableName).append(" (");
-
-        List<String> columns = new ArrayList<>(stringObjectMap.keySet());
-        for (int i = 0; i < columns.size(); i++) {
-            sql.append(columns.get(i));
-            if (i < columns.size() - 1) {
-                sql.append(", ");
-            }
+    private List<String> resolveInsertColumns(List<Map<String, Object>> columnInfos, List<String> headers) {
+        Set<String> headerSet = headers.stream()
+                .filter(Objects::nonNull)
+                .map(header -> header.trim().toLowerCase())
+                .collect(Collectors.toSet());
+        List<String> columns = columnInfos.stream()
+                .map(column -> (String) column.get(Constant.COLUMN_NAME))
+                .filter(column -> headerSet.contains(column.toLowerCase()))
+                .collect(Collectors.toList());
+        if (columns.isEmpty()) {
+            throw new IllegalArgumentException("文件表头与表结构没有匹配的列");
         }
+        return columns;
+    }
 
-        sql.append(") VALUES (");
-
-        for (int i = 0; i < columns.size(); i++) {
-            String column = columns.get(i);
-            Object value = stringObjectMap.get(column);
-
-            if (value == null) {
-                sql.append("NULL");
-            } else if (value instanceof Number || value instanceof Boolean) {
-                sql.append(value);
-            } else {
-                sql.append("'").append(value.toString().replace("'", "''")).append("'");
-            }
-
-            if (i < columns.size() - 1) {
-                sql.append(", ");
+    /**
+     * 与插入列一一对应的文件列下标，表头重复时取第一列
+     */
+    private int[] resolveColumnIndexes(List<String> columns, List<String> headers) {
+        Map<String, Integer> headerIndexes = new HashMap<>();
+        for (int i = 0; i < headers.size(); i++) {
+            String header = headers.get(i);
+            if (header != null) {
+                headerIndexes.putIfAbsent(header.trim().toLowerCase(), i);
             }
         }
-
-        sql.append(")");
-        return sql.toString();
+        return columns.stream()
+                .mapToInt(column -> headerIndexes.get(column.toLowerCase()))
+                .toArray();
     }
 
     /**
@@ -733,7 +1748,7 @@ public class DataImportExportService {
                     SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
                     return sdf.format(date);
                 } else {
-                    return String.valueOf(cell.getNumericCellValue());
+                    return NumberToTextConverter.toText(cell.getNumericCellValue());
                 }
             case BOOLEAN:
                 return String.valueOf(cell.getBooleanCellValue());
@@ -745,24 +1760,27 @@ public class DataImportExportService {
     }
 
     /**
-     * 设置单元格值
+     * 批量写入过程，由调用方逐行提交到导入流水线
      */
-    private void setCellValue(Cell cell, Object value) {
-        if (value == null) {
-            cell.setCellValue("");
-            return;
-        }
+    @FunctionalInterface
+    private interface BatchWork<R> {
+        void write(ImportPipeline<R> pipeline) throws IOException, SQLException;
+    }
 
-        if (value instanceof String) {
-            cell.setCellValue((String) value);
-        } else if (value instanceof Number) {
-            cell.setCellValue(((Number) value).doubleValue());
-        } else if (value instanceof Boolean) {
-            cell.setCellValue((Boolean) value);
-        } else if (value instanceof Date) {
-            cell.setCellValue((Date) value);
-        } else {
-            cell.setCellValue(value.toString());
-        }
+    /**
+     * 按表结构读取文件并写入，返回成功插入的行数
+     */
+    @FunctionalInterface
+    private interface RecordImport {
+        long run(InsertSqlBuilder insertSql, List<Map<String, Object>> columnInfos,
+                 ImportErrorCollector errors) throws IOException;
+    }
+
+    /**
+     * 导出过程，返回写出行数
+     */
+    @FunctionalInterface
+    private interface ExportTask {
+        long run() throws IOException;
     }
-}
\ No newline at end of file
+}
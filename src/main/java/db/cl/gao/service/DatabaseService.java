@@ -10,12 +10,19 @@ import db.cl.gao.common.param.DatabaseContextHolder;
 import db.cl.gao.config.DatabaseConfigManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
 import javax.annotation.PostConstruct;
 import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.*;
 
 @Slf4j
@@ -23,6 +30,8 @@ import java.util.*;
 @RequiredArgsConstructor
 public class DatabaseService {
 
+    private static final int STREAM_FETCH_SIZE = 1000;
+
     private final DatabaseConfigManager configManager;
     private final DataSource defaultDataSource;
     private final OperationLogMapper operationLogMapper;
@@ -120,6 +129,15 @@ public class DatabaseService {
      * 获取所有表信息
      */
     public List<Map<String, Object>> getTables() {
+        return getTables(true);
+    }
+
+    /**
+     * 获取所有表信息
+     *
+     * @param audit 是否写入操作日志，导入导出等内部调用不逐次记录
+     */
+    public List<Map<String, Object>> getTables(boolean audit) {
         JdbcTemplate template = getJdbcTemplate();
 
         // 首先获取当前数据库名
@@ -146,7 +164,9 @@ public class DatabaseService {
         List<Map<String, Object>> maps = template.queryForList(sql, currentDb);
         long end = System.currentTimeMillis() - start;
         log.debug("SQL执行完成，耗时: {}ms", end);
-        operatorLog(currentDb, sql,"information_schema.TABLES",end);
+        if (audit) {
+            operatorLog(currentDb, sql,"information_schema.TABLES",end);
+        }
         return maps;
     }
 
@@ -167,6 +187,15 @@ public class DatabaseService {
      * 获取表结构
      */
     public List<Map<String, Object>> getTableStructure(String tableName) {
+        return getTableStructure(tableName, true);
+    }
+
+    /**
+     * 获取表结构
+     *
+     * @param audit 是否写入操作日志，导入导出等内部调用不逐次记录
+     */
+    public List<Map<String, Object>> getTableStructure(String tableName, boolean audit) {
         JdbcTemplate template = getJdbcTemplate();
         String currentDb = getCurrentDatabaseName(template);
 
@@ -191,7 +220,9 @@ public class DatabaseService {
         List<Map<String, Object>> maps = template.queryForList(sql, currentDb, tableName);
         long end = System.currentTimeMillis() - start;
         log.debug(" COLUMNS SQL执行完成，耗时: {}ms", end);
-        operatorLog(currentDb, sql,"information_schema.COLUMNS",end);
+        if (audit) {
+            operatorLog(currentDb, sql,"information_schema.COLUMNS",end);
+        }
         return maps;
     }
 
@@ -256,6 +287,13 @@ public class DatabaseService {
     @TrackSql(sqlParam = "#sql", description = "执行SQL查询")
     @LogOperation(logParams = false)
     public Map<String, Object> executeQuery(String sql) {
+        return executeWithoutAudit(sql);
+    }
+
+    /**
+     * 执行SQL，不经过SQL追踪和操作日志切面，供导入等批量场景内部调用，由调用方汇总审计
+     */
+    public Map<String, Object> executeWithoutAudit(String sql) {
         JdbcTemplate template = getJdbcTemplate();
         Map<String, Object> result = new HashMap<>();
 
@@ -300,6 +338,63 @@ public class DatabaseService {
         return result;
     }
 
+    /**
+     * 获取当前上下文对应的数据源
+     */
+    public DataSource getCurrentDataSource() {
+        return getJdbcTemplate().getDataSource();
+    }
+
+    /**
+     * 流式查询：只读、仅向前游标，结果集逐行交给extractor处理，不在内存中物化
+     */
+    public <T> T streamQuery(String sql, ResultSetExtractor<T> extractor) {
+        return streamQuery(sql, new Object[0], extractor);
+    }
+
+    /**
+     * 带绑定参数的流式查询
+     */
+    public <T> T streamQuery(String sql, Object[] args, ResultSetExtractor<T> extractor) {
+        JdbcTemplate template = getJdbcTemplate();
+        return template.query(con -> {
+            PreparedStatement ps = prepareStreamingStatement(con, sql);
+            new ArgumentPreparedStatementSetter(args).setValues(ps);
+            return ps;
+        }, extractor);
+    }
+
+    /**
+     * 创建流式读取的只读、仅向前语句
+     */
+    public static PreparedStatement prepareStreamingStatement(Connection con, String sql) throws SQLException {
+        PreparedStatement ps = con.prepareStatement(sql,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        ps.setFetchSize(resolveStreamFetchSize(con));
+        return ps;
+    }
+
+    /**
+     * 计算流式读取的fetchSize
+     * MySQL驱动默认一次拉取全部结果：开启useCursorFetch时按fetchSize分批读取，否则需Integer.MIN_VALUE逐行读取
+     */
+    private static int resolveStreamFetchSize(Connection con) throws SQLException {
+        DatabaseMetaData metaData = con.getMetaData();
+        String productName = metaData.getDatabaseProductName();
+        if (productName == null || !productName.toLowerCase().contains("mysql")) {
+            return STREAM_FETCH_SIZE;
+        }
+        String url = metaData.getURL();
+        return url != null && url.contains("useCursorFetch=true") ? STREAM_FETCH_SIZE : Integer.MIN_VALUE;
+    }
+
+    /**
+     * 是否为禁止执行的危险语句
+     */
+    public boolean isUnsafeStatement(String sql) {
+        return isUnsafeSql(sql.trim().toUpperCase());
+    }
+
     // SQL安全检查（简化版）
     private boolean isUnsafeSql(String upperSql) {
         // 检查是否包含危险操作
@@ -0,0 +1,312 @@
+package db.cl.gao.service;
+
+import db.cl.gao.common.enums.JobStatus;
+import db.cl.gao.common.excep.DbException;
+import db.cl.gao.common.param.DatabaseContextHolder;
+import db.cl.gao.common.param.ExportJobInfo;
+import db.cl.gao.common.param.ExportRequest;
+import db.cl.gao.service.export.CountingOutputStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * 异步导出任务服务
+ * <p>
+ * 导出在独立线程池中执行并落盘到工作目录，客户端轮询进度后按需（支持断点续传）下载
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ExportJobService {
+
+    private static final int WORKER_THREADS = 2;
+    private static final int QUEUE_CAPACITY = 16;
+    private static final int FILE_BUFFER_SIZE = 64 * 1024;
+    private static final long JOB_RETENTION_MILLIS = TimeUnit.HOURS.toMillis(24);
+    private static final Pattern JOB_FILE_PATTERN = Pattern.compile("^[0-9a-f]{32}(\\.part|_.+)$");
+
+    private final DataImportExportService dataImportExportService;
+    private final DatabaseService databaseService;
+
+    @Value("${export.work-dir:${java.io.tmpdir}/db-cl-export}")
+    private String workDir;
+
+    private final Map<String, ExportJob> jobs = new ConcurrentHashMap<>();
+    private ThreadPoolExecutor executor;
+    private ScheduledExecutorService cleaner;
+
+    @PostConstruct
+    public void init() throws IOException {
+        File dir = new File(workDir);
+        Files.createDirectories(dir.toPath());
+        // 任务信息只保存在内存中，重启后遗留的文件无法再下载
+        File[] staleFiles = dir.listFiles((parent, name) -> JOB_FILE_PATTERN.matcher(name).matches());
+        if (staleFiles != null) {
+            for (File file : staleFiles) {
+                deleteQuietly(file);
+            }
+        }
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        executor = new ThreadPoolExecutor(WORKER_THREADS, WORKER_THREADS, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+                runnable -> new Thread(runnable, "export-job-" + threadIndex.incrementAndGet()));
+        cleaner = Executors.newSingleThreadScheduledExecutor();
+        cleaner.scheduleAtFixedRate(this::cleanupExpired, 10, 10, TimeUnit.MINUTES);
+        log.info("导出任务服务初始化完成，工作目录: {}", dir.getAbsolutePath());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        cleaner.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    /**
+     * 提交导出任务
+     */
+    public ExportJobInfo submit(String database, ExportRequest request) {
+        ExportJob job = new ExportJob(UUID.randomUUID().toString().replace("-", ""), request);
+        job.estimatedRows = estimateRows(database, request);
+        job.fileName = dataImportExportService.getExportFileName(request);
+        job.file = new File(workDir, job.id + ".part");
+
+        // 校验在提交线程内完成，参数错误直接返回
+        StreamingResponseBody body = dataImportExportService.exportData(database, request, job.rows);
+
+        jobs.put(job.id, job);
+        try {
+            job.future = executor.submit(() -> runJob(job, body));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            throw new DbException("导出任务过多，请稍后再试");
+        }
+        log.info("提交导出任务: jobId={}, table={}", job.id, request.getTableName());
+        return job.toInfo();
+    }
+
+    /**
+     * 查询任务进度
+     */
+    public ExportJobInfo getJob(String jobId) {
+        return getExistingJob(jobId).toInfo();
+    }
+
+    /**
+     * 获取已完成任务的导出文件
+     */
+    public File getJobFile(String jobId) {
+        ExportJob job = getExistingJob(jobId);
+        if (job.status != JobStatus.COMPLETED) {
+            throw new DbException("导出任务未完成: " + job.status);
+        }
+        return job.file;
+    }
+
+    /**
+     * 取消任务并删除导出文件
+     */
+    public void deleteJob(String jobId) {
+        ExportJob job = jobs.remove(jobId);
+        if (job == null) {
+            throw new DbException("导出任务不存在: " + jobId);
+        }
+        if (!job.status.isFinished()) {
+            // 先置取消标记，导出线程下一次写出时结束；中断只能唤醒部分阻塞操作
+            job.cancelled = true;
+            job.status = JobStatus.CANCELLED;
+            if (job.future != null) {
+                job.future.cancel(true);
+            }
+        }
+        deleteQuietly(job.file);
+    }
+
+    private void runJob(ExportJob job, StreamingResponseBody body) {
+        job.status = JobStatus.RUNNING;
+        job.startTime = System.currentTimeMillis();
+        File partFile = job.file;
+
+        try (CountingOutputStream outputStream = new CountingOutputStream(
+                new BufferedOutputStream(new FileOutputStream(partFile), FILE_BUFFER_SIZE), () -> job.cancelled)) {
+            job.output = outputStream;
+            body.writeTo(outputStream);
+        } catch (Exception e) {
+            deleteQuietly(partFile);
+            if (job.cancelled) {
+                // 状态已由deleteJob置为CANCELLED
+                log.info("导出任务已取消: jobId={}", job.id);
+                return;
+            }
+            log.error("导出任务失败: jobId={}", job.id, e);
+            finishJob(job, JobStatus.FAILED, e.getMessage());
+            return;
+        }
+
+        if (job.cancelled) {
+            deleteQuietly(partFile);
+            return;
+        }
+
+        File file = new File(workDir, job.id + "_" + job.fileName);
+        if (!partFile.renameTo(file)) {
+            finishJob(job, JobStatus.FAILED, "导出文件重命名失败");
+            deleteQuietly(partFile);
+            return;
+        }
+        job.file = file;
+        if (job.cancelled) {
+            // 重命名期间被取消，deleteJob删除的是旧文件名
+            deleteQuietly(file);
+            return;
+        }
+        finishJob(job, JobStatus.COMPLETED, null);
+        log.info("导出任务完成: jobId={}, rows={}, bytes={}", job.id, job.rows.get(), file.length());
+    }
+
+    private void finishJob(ExportJob job, JobStatus status, String message) {
+        job.message = message;
+        job.finishedAt = new Date();
+        job.status = status;
+    }
+
+    /**
+     * 根据information_schema预估行数，带过滤条件或起始键时无法预估
+     */
+    private Long estimateRows(String database, ExportRequest request) {
+        if (StringUtils.hasText(request.getWhereClause())
+                || !CollectionUtils.isEmpty(request.getStartAfter())) {
+            return request.getLimit();
+        }
+        try {
+            if (StringUtils.hasText(database)) {
+                DatabaseContextHolder.setDatabase(database);
+            }
+            return databaseService.getTables(false).stream()
+                    .filter(table -> request.getTableName().equals(table.get("TABLE_NAME")))
+                    .map(table -> table.get("TABLE_ROWS"))
+                    .filter(Number.class::isInstance)
+                    .map(rows -> ((Number) rows).longValue())
+                    .map(rows -> request.getLimit() != null ? Math.min(rows, request.getLimit()) : rows)
+                    .findFirst()
+                    .orElse(request.getLimit());
+        } finally {
+            DatabaseContextHolder.clear();
+        }
+    }
+
+    private ExportJob getExistingJob(String jobId) {
+        ExportJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new DbException("导出任务不存在: " + jobId);
+        }
+        return job;
+    }
+
+    /**
+     * 清理过期任务及其文件
+     */
+    private void cleanupExpired() {
+        long expireBefore = System.currentTimeMillis() - JOB_RETENTION_MILLIS;
+        jobs.values().removeIf(job -> {
+            boolean expired = job.finishedAt != null && job.finishedAt.getTime() < expireBefore;
+            if (expired) {
+                deleteQuietly(job.file);
+            }
+            return expired;
+        });
+    }
+
+    private void deleteQuietly(File file) {
+        try {
+            if (file != null) {
+                Files.deleteIfExists(file.toPath());
+            }
+        } catch (IOException e) {
+            log.warn("删除导出文件失败: {}", file, e);
+        }
+    }
+
+    /**
+     * 导出任务运行状态
+     */
+    private static class ExportJob {
+        private final String id;
+        private final ExportRequest request;
+        private final AtomicLong rows = new AtomicLong();
+        private final Date createdAt = new Date();
+
+        private volatile JobStatus status = JobStatus.PENDING;
+        private volatile boolean cancelled;
+        private volatile File file;
+        private volatile CountingOutputStream output;
+        private volatile long startTime;
+        private volatile Date finishedAt;
+        private volatile String message;
+        private String fileName;
+        private Long estimatedRows;
+        private volatile Future<?> future;
+
+        ExportJob(String id, ExportRequest request) {
+            this.id = id;
+            this.request = request;
+        }
+
+        ExportJobInfo toInfo() {
+            ExportJobInfo info = new ExportJobInfo();
+            info.setJobId(id);
+            info.setTableName(request.getTableName());
+            info.setFileName(fileName);
+            info.setStatus(status);
+            info.setRowsWritten(rows.get());
+            info.setEstimatedRows(estimatedRows);
+            info.setMessage(message);
+            info.setCreatedAt(createdAt);
+            info.setFinishedAt(finishedAt);
+
+            CountingOutputStream outputStream = output;
+            if (outputStream != null) {
+                info.setBytesWritten(outputStream.getCount());
+            }
+
+            if (startTime > 0) {
+                long endTime = finishedAt != null ? finishedAt.getTime() : System.currentTimeMillis();
+                long elapsedMillis = Math.max(endTime - startTime, 1);
+                double rowsPerSecond = info.getRowsWritten() * 1000.0 / elapsedMillis;
+                info.setRowsPerSecond(rowsPerSecond);
+                if (status == JobStatus.RUNNING && estimatedRows != null && rowsPerSecond > 0) {
+                    long remaining = Math.max(estimatedRows - info.getRowsWritten(), 0);
+                    info.setEtaSeconds((long) Math.ceil(remaining / rowsPerSecond));
+                }
+            }
+            return info;
+        }
+    }
+}
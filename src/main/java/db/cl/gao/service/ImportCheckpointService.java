@@ -0,0 +1,218 @@
+package db.cl.gao.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import db.cl.gao.common.enums.ImportType;
+import db.cl.gao.common.enums.JobStatus;
+import db.cl.gao.common.excep.DbException;
+import db.cl.gao.common.param.ImportCheckpoint;
+import db.cl.gao.common.param.ImportOptions;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Date;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * 导入检查点存储
+ * <p>
+ * 分段提交的导入先将上传文件保存到工作目录，每次提交后把检查点原子地写入同目录下的JSON文件，
+ * 进程崩溃或重启后可按检查点从最后一次提交的位置续传。已完成的检查点保留一段时间供查询
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ImportCheckpointService {
+
+    private static final long COMPLETED_RETENTION_MILLIS = TimeUnit.DAYS.toMillis(1);
+    private static final Pattern CHECKPOINT_ID_PATTERN = Pattern.compile("^[0-9a-f]{32}$");
+    private static final String CHECKPOINT_SUFFIX = ".json";
+    private static final String DATA_SUFFIX = ".data";
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${import.work-dir:${java.io.tmpdir}/db-cl-import}")
+    private String workDir;
+
+    // 本进程内正在执行的检查点，崩溃后遗留的RUNNING状态不影响续传
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+    private ScheduledExecutorService cleaner;
+
+    @PostConstruct
+    public void init() throws IOException {
+        Files.createDirectories(new File(workDir).toPath());
+        cleaner = Executors.newSingleThreadScheduledExecutor();
+        cleaner.scheduleAtFixedRate(this::cleanupCompleted, 10, 60, TimeUnit.MINUTES);
+        log.info("导入检查点服务初始化完成，工作目录: {}", new File(workDir).getAbsolutePath());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        cleaner.shutdownNow();
+    }
+
+    /**
+     * 保存上传文件并创建检查点，检查点进入执行状态，结束时需调用{@link #end}
+     */
+    public ImportCheckpoint create(String database, String tableName, ImportType importType,
+                                   ImportOptions options, MultipartFile file) throws IOException {
+        ImportCheckpoint checkpoint = new ImportCheckpoint();
+        checkpoint.setCheckpointId(UUID.randomUUID().toString().replace("-", ""));
+        checkpoint.setDatabase(database);
+        checkpoint.setTableName(tableName);
+        checkpoint.setImportType(importType);
+        checkpoint.setFileName(file.getOriginalFilename());
+        checkpoint.setOptions(options);
+        checkpoint.setStatus(JobStatus.RUNNING);
+        checkpoint.setCreatedAt(new Date());
+
+        try (InputStream inputStream = file.getInputStream()) {
+            Files.copy(inputStream, getDataFile(checkpoint).toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        running.add(checkpoint.getCheckpointId());
+        save(checkpoint);
+        log.info("创建导入检查点: checkpointId={}, table={}, type={}",
+                checkpoint.getCheckpointId(), tableName, importType);
+        return checkpoint;
+    }
+
+    /**
+     * 开始续传，同一检查点同时只能有一个导入在执行
+     */
+    public ImportCheckpoint begin(String checkpointId) throws IOException {
+        ImportCheckpoint checkpoint = get(checkpointId);
+        if (checkpoint.getStatus() == JobStatus.COMPLETED) {
+            throw new DbException("导入已完成，无需续传: " + checkpointId);
+        }
+        if (!running.add(checkpointId)) {
+            throw new DbException("导入正在执行: " + checkpointId);
+        }
+        try {
+            checkpoint.setStatus(JobStatus.RUNNING);
+            checkpoint.setMessage(null);
+            save(checkpoint);
+            return checkpoint;
+        } catch (IOException | RuntimeException e) {
+            running.remove(checkpointId);
+            throw e;
+        }
+    }
+
+    /**
+     * 导入结束：成功时删除上传文件，检查点保留供查询；失败时保留上传文件等待续传
+     *
+     * @param error 导入失败的异常，成功时为空
+     */
+    public void end(ImportCheckpoint checkpoint, Throwable error) {
+        try {
+            if (error == null) {
+                checkpoint.setStatus(JobStatus.COMPLETED);
+                checkpoint.setMessage(null);
+                save(checkpoint);
+                Files.deleteIfExists(getDataFile(checkpoint).toPath());
+            } else {
+                checkpoint.setStatus(JobStatus.FAILED);
+                checkpoint.setMessage(error.getMessage());
+                save(checkpoint);
+            }
+        } catch (IOException e) {
+            log.error("保存导入检查点失败: checkpointId={}", checkpoint.getCheckpointId(), e);
+        } finally {
+            running.remove(checkpoint.getCheckpointId());
+        }
+    }
+
+    /**
+     * 查询检查点
+     */
+    public ImportCheckpoint get(String checkpointId) {
+        File file = checkpointFile(checkpointId);
+        if (!file.isFile()) {
+            throw new DbException("导入检查点不存在: " + checkpointId);
+        }
+        try {
+            return objectMapper.readValue(file, ImportCheckpoint.class);
+        } catch (IOException e) {
+            throw new DbException("读取导入检查点失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 检查点对应的上传文件
+     */
+    public File getDataFile(ImportCheckpoint checkpoint) {
+        return new File(workDir, checkpoint.getCheckpointId() + DATA_SUFFIX);
+    }
+
+    /**
+     * 持久化检查点：先写临时文件并刷盘，再原子替换，崩溃时不会留下半个文件
+     */
+    public void save(ImportCheckpoint checkpoint) throws IOException {
+        checkpoint.setUpdatedAt(new Date());
+        File file = checkpointFile(checkpoint.getCheckpointId());
+        File tempFile = new File(workDir, checkpoint.getCheckpointId() + CHECKPOINT_SUFFIX + ".tmp");
+        try (FileOutputStream outputStream = new FileOutputStream(tempFile)) {
+            objectMapper.writeValue(outputStream, checkpoint);
+            outputStream.getFD().sync();
+        }
+        Files.move(tempFile.toPath(), file.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * 放弃续传，删除检查点和上传文件
+     */
+    public void delete(String checkpointId) throws IOException {
+        ImportCheckpoint checkpoint = get(checkpointId);
+        if (running.contains(checkpointId)) {
+            throw new DbException("导入正在执行，不能删除检查点");
+        }
+        Files.deleteIfExists(getDataFile(checkpoint).toPath());
+        Files.deleteIfExists(checkpointFile(checkpointId).toPath());
+    }
+
+    private File checkpointFile(String checkpointId) {
+        if (checkpointId == null || !CHECKPOINT_ID_PATTERN.matcher(checkpointId).matches()) {
+            throw new IllegalArgumentException("检查点ID格式不正确");
+        }
+        return new File(workDir, checkpointId + CHECKPOINT_SUFFIX);
+    }
+
+    /**
+     * 清理过期的已完成检查点，未完成的检查点一直保留到续传成功或被删除
+     */
+    private void cleanupCompleted() {
+        long expireBefore = System.currentTimeMillis() - COMPLETED_RETENTION_MILLIS;
+        File[] files = new File(workDir).listFiles((parent, name) -> name.endsWith(CHECKPOINT_SUFFIX));
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            try {
+                ImportCheckpoint checkpoint = objectMapper.readValue(file, ImportCheckpoint.class);
+                if (checkpoint.getStatus() == JobStatus.COMPLETED && checkpoint.getUpdatedAt() != null
+                        && checkpoint.getUpdatedAt().getTime() < expireBefore) {
+                    Files.deleteIfExists(file.toPath());
+                }
+            } catch (IOException e) {
+                log.warn("清理导入检查点失败: {}", file, e);
+            }
+        }
+    }
+}
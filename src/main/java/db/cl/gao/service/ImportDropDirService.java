@@ -0,0 +1,79 @@
+package db.cl.gao.service;
+
+import db.cl.gao.common.excep.DbException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 服务端导入目录
+ * <p>
+ * 超大文件不适合经multipart上传，由运维放入import.drop-dir后按文件名导入。
+ * 只能访问该目录下的普通文件，未配置目录时不开放
+ */
+@Service
+public class ImportDropDirService {
+
+    @Value("${import.drop-dir:}")
+    private String dropDir;
+
+    /**
+     * 目录中的文件，按文件名排序
+     */
+    public List<Map<String, Object>> listFiles() throws IOException {
+        try (Stream<Path> paths = Files.list(getDropDir())) {
+            return paths.filter(Files::isRegularFile)
+                    .sorted(Comparator.comparing(Path::getFileName))
+                    .map(this::describe)
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * 按文件名定位目录中的文件，文件名不能包含路径
+     */
+    public Path resolve(String fileName) {
+        Path dir = getDropDir();
+        if (!StringUtils.hasText(fileName)) {
+            throw new IllegalArgumentException("文件名不能为空");
+        }
+        Path file = dir.resolve(fileName).normalize();
+        if (!dir.equals(file.getParent())) {
+            throw new IllegalArgumentException("文件名不能包含路径: " + fileName);
+        }
+        if (!Files.isRegularFile(file)) {
+            throw new DbException("导入目录中不存在文件: " + fileName);
+        }
+        return file;
+    }
+
+    private Path getDropDir() {
+        if (!StringUtils.hasText(dropDir)) {
+            throw new DbException("未配置服务端导入目录import.drop-dir");
+        }
+        return Paths.get(dropDir).toAbsolutePath().normalize();
+    }
+
+    private Map<String, Object> describe(Path file) {
+        Map<String, Object> info = new HashMap<>();
+        info.put("fileName", file.getFileName().toString());
+        try {
+            info.put("size", Files.size(file));
+            info.put("lastModified", Files.getLastModifiedTime(file).toMillis());
+        } catch (IOException e) {
+            throw new DbException("读取文件信息失败: " + file.getFileName(), e);
+        }
+        return info;
+    }
+}
@@ -0,0 +1,113 @@
+package db.cl.gao.service;
+
+import db.cl.gao.common.excep.DbException;
+import db.cl.gao.service.importer.ImportErrorCollector;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * 导入错误报告存储
+ * <p>
+ * 每次导入的全部失败行写入工作目录下的CSV文件，导入结果只返回报告ID和少量样例，
+ * 报告通过单独的接口下载，保留一段时间后删除
+ */
+@Slf4j
+@Service
+public class ImportErrorReportService {
+
+    private static final int MAX_ERROR_SAMPLES = 100;
+    private static final long REPORT_RETENTION_MILLIS = TimeUnit.HOURS.toMillis(24);
+    private static final Pattern REPORT_ID_PATTERN = Pattern.compile("^[0-9a-f]{32}$");
+    private static final String REPORT_SUFFIX = ".errors.csv";
+
+    @Value("${import.work-dir:${java.io.tmpdir}/db-cl-import}")
+    private String workDir;
+
+    private ScheduledExecutorService cleaner;
+
+    @PostConstruct
+    public void init() throws IOException {
+        Files.createDirectories(new File(workDir).toPath());
+        cleaner = Executors.newSingleThreadScheduledExecutor();
+        cleaner.scheduleAtFixedRate(this::cleanupExpired, 10, 60, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        cleaner.shutdownNow();
+    }
+
+    /**
+     * 为一次导入创建错误收集器
+     */
+    public ImportErrorCollector createCollector() {
+        String reportId = UUID.randomUUID().toString().replace("-", "");
+        return new ImportErrorCollector(reportId, new File(workDir, reportId + REPORT_SUFFIX), MAX_ERROR_SAMPLES);
+    }
+
+    /**
+     * 导入结束时关闭收集器；不保留或报告不完整时删除报告文件，保留的报告由定时清理删除
+     *
+     * @param keep 是否保留报告。导入失败且已回滚时报告中的行没有意义；分段提交的导入失败时已提交分段的
+     *             失败行不会在续传时重新出现，需要保留
+     * @return 可下载的报告ID，没有报告时返回null
+     */
+    public String finish(ImportErrorCollector collector, boolean keep) {
+        collector.close();
+        String reportId = keep ? collector.getReportId() : null;
+        if (reportId == null) {
+            deleteQuietly(collector.getReportFile());
+        }
+        return reportId;
+    }
+
+    /**
+     * 错误报告文件
+     */
+    public File getReportFile(String reportId) {
+        if (reportId == null || !REPORT_ID_PATTERN.matcher(reportId).matches()) {
+            throw new IllegalArgumentException("错误报告ID格式不正确");
+        }
+        File file = new File(workDir, reportId + REPORT_SUFFIX);
+        if (!file.isFile()) {
+            throw new DbException("错误报告不存在或已过期: " + reportId);
+        }
+        return file;
+    }
+
+    /**
+     * 清理过期的错误报告
+     */
+    private void cleanupExpired() {
+        long expireBefore = System.currentTimeMillis() - REPORT_RETENTION_MILLIS;
+        File[] files = new File(workDir).listFiles((parent, name) -> name.endsWith(REPORT_SUFFIX));
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            if (file.lastModified() < expireBefore) {
+                deleteQuietly(file);
+            }
+        }
+    }
+
+    private void deleteQuietly(File file) {
+        try {
+            Files.deleteIfExists(file.toPath());
+        } catch (IOException e) {
+            log.warn("删除导入错误报告失败: {}", file, e);
+        }
+    }
+}
@@ -0,0 +1,314 @@
+package db.cl.gao.service;
+
+import db.cl.gao.common.enums.ImportType;
+import db.cl.gao.common.enums.JobStatus;
+import db.cl.gao.common.excep.DbException;
+import db.cl.gao.common.param.ImportCheckpoint;
+import db.cl.gao.common.param.ImportJobInfo;
+import db.cl.gao.common.param.ImportOptions;
+import db.cl.gao.common.param.ImportResult;
+import db.cl.gao.service.importer.ImportProgress;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * 异步导入任务服务
+ * <p>
+ * 上传文件在请求线程中保存到工作目录后立即返回任务ID，导入在独立的有界线程池中执行，
+ * 不占用Tomcat请求线程。客户端轮询进度，可随时取消：整体提交的导入回滚全部数据，
+ * 分段提交的导入保留已提交的分段并可从检查点续传
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ImportJobService {
+
+    private static final int WORKER_THREADS = 2;
+    private static final int QUEUE_CAPACITY = 8;
+    private static final long JOB_RETENTION_MILLIS = TimeUnit.HOURS.toMillis(24);
+    private static final String UPLOAD_SUFFIX = ".upload";
+    private static final Pattern UPLOAD_FILE_PATTERN = Pattern.compile("^[0-9a-f]{32}\\.upload$");
+
+    private final DataImportExportService dataImportExportService;
+    private final ImportCheckpointService importCheckpointService;
+    private final ImportDropDirService importDropDirService;
+
+    @Value("${import.work-dir:${java.io.tmpdir}/db-cl-import}")
+    private String workDir;
+
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+    private ThreadPoolExecutor executor;
+    private ScheduledExecutorService cleaner;
+
+    @PostConstruct
+    public void init() throws IOException {
+        File dir = new File(workDir);
+        Files.createDirectories(dir.toPath());
+        // 任务信息只保存在内存中，重启后遗留的上传文件无法再导入
+        File[] staleFiles = dir.listFiles((parent, name) -> UPLOAD_FILE_PATTERN.matcher(name).matches());
+        if (staleFiles != null) {
+            for (File file : staleFiles) {
+                deleteQuietly(file);
+            }
+        }
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        executor = new ThreadPoolExecutor(WORKER_THREADS, WORKER_THREADS, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+                runnable -> new Thread(runnable, "import-job-" + threadIndex.incrementAndGet()));
+        cleaner = Executors.newSingleThreadScheduledExecutor();
+        cleaner.scheduleAtFixedRate(this::cleanupExpired, 10, 10, TimeUnit.MINUTES);
+        log.info("导入任务服务初始化完成，工作目录: {}", dir.getAbsolutePath());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        cleaner.shutdownNow();
+        // 先让执行中的导入在下一行处中止并回滚，再停止线程池
+        jobs.values().forEach(job -> job.progress.cancel());
+        executor.shutdownNow();
+    }
+
+    /**
+     * 提交导入任务，commitInterval大于0时上传文件直接保存为检查点数据
+     */
+    public ImportJobInfo submit(ImportType importType, String database, String tableName, boolean truncateFirst,
+                                ImportOptions options, MultipartFile file) throws IOException {
+        if (importType != ImportType.SQL && !StringUtils.hasText(tableName)) {
+            throw new IllegalArgumentException("表名不能为空");
+        }
+
+        ImportJob job = new ImportJob(UUID.randomUUID().toString().replace("-", ""), importType, tableName,
+                file.getOriginalFilename());
+        InputStreamSource source;
+        if (options.getCommitInterval() > 0) {
+            job.checkpoint = importCheckpointService.create(database, tableName, importType, options, file);
+            job.progress.setCheckpointId(job.checkpoint.getCheckpointId());
+            source = new FileSystemResource(importCheckpointService.getDataFile(job.checkpoint));
+        } else {
+            job.uploadFile = new File(workDir, job.id + UPLOAD_SUFFIX);
+            try (InputStream inputStream = file.getInputStream()) {
+                Files.copy(inputStream, job.uploadFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            source = new FileSystemResource(job.uploadFile);
+        }
+
+        return start(job, () -> dataImportExportService.importFile(importType, database, tableName, truncateFirst,
+                options, job.fileName, source, job.checkpoint, job.progress));
+    }
+
+    /**
+     * 提交服务端目录CSV导入任务，文件直接从导入目录读取
+     */
+    public ImportJobInfo submitDropCsv(String database, String tableName, boolean truncateFirst,
+                                       ImportOptions options, String fileName) {
+        if (!StringUtils.hasText(tableName)) {
+            throw new IllegalArgumentException("表名不能为空");
+        }
+        if (options.getCommitInterval() > 0) {
+            throw new IllegalArgumentException("服务端目录导入不支持分段提交");
+        }
+        // 文件不存在时在提交时报错，而不是等到任务执行
+        importDropDirService.resolve(fileName);
+
+        ImportJob job = new ImportJob(UUID.randomUUID().toString().replace("-", ""), ImportType.CSV, tableName,
+                fileName);
+        return start(job, () -> dataImportExportService.importDropCsv(database, tableName, truncateFirst, options,
+                fileName, job.progress));
+    }
+
+    /**
+     * 查询任务进度
+     */
+    public ImportJobInfo getJob(String jobId) {
+        return getExistingJob(jobId).toInfo();
+    }
+
+    /**
+     * 取消未结束的任务，任务在中止后仍可查询；已结束的任务直接删除
+     */
+    public void deleteJob(String jobId) {
+        ImportJob job = getExistingJob(jobId);
+        if (job.status.isFinished()) {
+            jobs.remove(jobId);
+            return;
+        }
+
+        job.progress.cancel();
+        // 尚未开始执行的任务直接出队
+        if (job.future != null && job.future.cancel(false)) {
+            discard(job);
+            finishJob(job, JobStatus.CANCELLED, "导入已取消");
+        }
+        log.info("取消导入任务: jobId={}", jobId);
+    }
+
+    private ImportJobInfo start(ImportJob job, JobWork work) {
+        jobs.put(job.id, job);
+        try {
+            job.future = executor.submit(() -> runJob(job, work));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            discard(job);
+            throw new DbException("导入任务过多，请稍后再试");
+        }
+        log.info("提交导入任务: jobId={}, type={}, table={}", job.id, job.importType, job.tableName);
+        return job.toInfo();
+    }
+
+    private void runJob(ImportJob job, JobWork work) {
+        job.status = JobStatus.RUNNING;
+        job.startTime = System.currentTimeMillis();
+        try {
+            job.result = work.run();
+            finishJob(job, JobStatus.COMPLETED, null);
+            log.info("导入任务完成: jobId={}, imported={}, failed={}",
+                    job.id, job.progress.getRowsImported(), job.progress.getRowsFailed());
+        } catch (Exception e) {
+            if (job.progress.isCancelled()) {
+                finishJob(job, JobStatus.CANCELLED, job.checkpoint != null
+                        ? "导入已取消，已提交的分段保留，可从检查点续传" : "导入已取消，已写入的数据已回滚");
+            } else {
+                log.error("导入任务失败: jobId={}", job.id, e);
+                finishJob(job, JobStatus.FAILED, e.getMessage());
+            }
+        } finally {
+            deleteQuietly(job.uploadFile);
+        }
+    }
+
+    private void finishJob(ImportJob job, JobStatus status, String message) {
+        job.message = message;
+        job.finishedAt = new Date();
+        job.status = status;
+    }
+
+    /**
+     * 任务未执行就结束时清理上传文件和检查点
+     */
+    private void discard(ImportJob job) {
+        deleteQuietly(job.uploadFile);
+        if (job.checkpoint != null) {
+            importCheckpointService.end(job.checkpoint, new DbException("导入已取消"));
+            try {
+                importCheckpointService.delete(job.checkpoint.getCheckpointId());
+            } catch (IOException e) {
+                log.warn("删除导入检查点失败: checkpointId={}", job.checkpoint.getCheckpointId(), e);
+            }
+        }
+    }
+
+    private ImportJob getExistingJob(String jobId) {
+        ImportJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new DbException("导入任务不存在: " + jobId);
+        }
+        return job;
+    }
+
+    /**
+     * 清理过期任务
+     */
+    private void cleanupExpired() {
+        long expireBefore = System.currentTimeMillis() - JOB_RETENTION_MILLIS;
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.getTime() < expireBefore);
+    }
+
+    private void deleteQuietly(File file) {
+        try {
+            if (file != null) {
+                Files.deleteIfExists(file.toPath());
+            }
+        } catch (IOException e) {
+            log.warn("删除上传文件失败: {}", file, e);
+        }
+    }
+
+    /**
+     * 任务执行的导入
+     */
+    @FunctionalInterface
+    private interface JobWork {
+        ImportResult run() throws IOException;
+    }
+
+    /**
+     * 导入任务运行状态
+     */
+    private static class ImportJob {
+        private final String id;
+        private final ImportType importType;
+        private final String tableName;
+        private final String fileName;
+        private final ImportProgress progress = new ImportProgress();
+        private final Date createdAt = new Date();
+
+        private volatile JobStatus status = JobStatus.PENDING;
+        private volatile long startTime;
+        private volatile Date finishedAt;
+        private volatile String message;
+        private volatile ImportResult result;
+        private volatile Future<?> future;
+        private ImportCheckpoint checkpoint;
+        private File uploadFile;
+
+        ImportJob(String id, ImportType importType, String tableName, String fileName) {
+            this.id = id;
+            this.importType = importType;
+            this.tableName = tableName;
+            this.fileName = fileName;
+        }
+
+        ImportJobInfo toInfo() {
+            ImportJobInfo info = new ImportJobInfo();
+            info.setJobId(id);
+            info.setImportType(importType);
+            info.setTableName(tableName);
+            info.setFileName(fileName);
+            info.setStatus(status);
+            info.setRowsRead(progress.getRowsRead());
+            info.setRowsImported(progress.getRowsImported());
+            info.setRowsFailed(progress.getRowsFailed());
+            info.setCheckpointId(progress.getCheckpointId());
+            info.setErrorReportId(progress.getErrorReportId());
+            info.setResult(result);
+            info.setMessage(message);
+            info.setCreatedAt(createdAt);
+            info.setFinishedAt(finishedAt);
+
+            if (startTime > 0) {
+                long endTime = finishedAt != null ? finishedAt.getTime() : System.currentTimeMillis();
+                long elapsedMillis = Math.max(endTime - startTime, 1);
+                info.setRowsPerSecond(info.getRowsRead() * 1000.0 / elapsedMillis);
+            }
+            return info;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package db.cl.gao.service;
+
+import db.cl.gao.common.Constant;
+import db.cl.gao.common.annotation.LogOperation;
+import db.cl.gao.common.mapper.OperationLogMapper;
+import db.cl.gao.common.model.OperationLog;
+import db.cl.gao.common.utils.AddressUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Date;
+
+/**
+ * 导入导出任务汇总审计
+ * <p>
+ * 导入导出不经过逐条SQL的审计切面，每个任务结束时只写一条包含行数、错误数和耗时的操作日志
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class JobAuditService {
+
+    private static final int TABLE_NAME_MAX_LENGTH = 100;
+
+    private final OperationLogMapper operationLogMapper;
+
+    /**
+     * 任务开始时创建审计记录，需在请求线程内调用以记录客户端IP
+     */
+    public OperationLog start(LogOperation.OperationType type, String database, String tableName, String description) {
+        OperationLog operationLog = new OperationLog();
+        operationLog.setOperationType(type.name());
+        operationLog.setDatabaseName(StringUtils.hasText(database) ? database : Constant.DEFAULT_DATABASE);
+        operationLog.setTableName(abbreviate(tableName));
+        operationLog.setSqlText(description);
+        operationLog.setCreatedBy("system");
+        operationLog.setExecuteTime(new Date());
+
+        ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            operationLog.setIpAddress(AddressUtil.getIpAddress(attributes.getRequest()));
+        }
+        return operationLog;
+    }
+
+    /**
+     * 任务结束时写入汇总审计记录，独立事务提交，导入回滚时审计记录仍然保留
+     *
+     * @param error 任务失败的异常，成功时为空
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void finish(OperationLog operationLog, long rows, long errorRows, long costTime, Throwable error) {
+        try {
+            operationLog.setAffectedRows((int) Math.min(rows, Integer.MAX_VALUE));
+            operationLog.setSuccess(error == null);
+            String summary = String.format("成功%d行，失败%d行，耗时%dms", rows, errorRows, costTime);
+            operationLog.setMessage(error == null ? summary : summary + "，异常: " + error.getMessage());
+            operationLog.setCreatedAt(new Date());
+            operationLogMapper.insert(operationLog);
+        } catch (Exception e) {
+            log.error("保存任务审计日志失败", e);
+            // 这里不抛出异常，避免影响主流程
+        }
+    }
+
+    private String abbreviate(String tableName) {
+        if (tableName == null || tableName.length() <= TABLE_NAME_MAX_LENGTH) {
+            return tableName;
+        }
+        return tableName.substring(0, TABLE_NAME_MAX_LENGTH - 3) + "...";
+    }
+}
@@ -0,0 +1,283 @@
+package db.cl.gao.service.export;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.DecimalVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.TimeMilliVector;
+import org.apache.arrow.vector.TimeStampMilliVector;
+import org.apache.arrow.vector.VarBinaryVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowFileWriter;
+import org.apache.arrow.vector.types.DateUnit;
+import org.apache.arrow.vector.types.FloatingPointPrecision;
+import org.apache.arrow.vector.types.TimeUnit;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Arrow IPC导出写入器
+ * <p>
+ * 按JDBC列类型构建列式向量，每累积一批行写出一个record batch，输出Arrow IPC文件格式
+ * （可直接被pyarrow / pandas.read_feather / Spark读取）。日期时间按无时区的本地时间写出
+ */
+public class ArrowExportWriter implements ExportWriter {
+
+    private static final int BATCH_SIZE = 8192;
+    private static final int MAX_DECIMAL_PRECISION = 38;
+
+    private final OutputStream outputStream;
+    private final BufferAllocator allocator = new RootAllocator();
+
+    private VectorSchemaRoot root;
+    private ArrowFileWriter fileWriter;
+    private ValueSetter[] setters;
+    private int batchRows;
+
+    public ArrowExportWriter(OutputStream outputStream) {
+        this.outputStream = outputStream;
+    }
+
+    @Override
+    public void writeHeader(List<ExportColumn> columns) throws IOException {
+        List<Field> fields = new ArrayList<>(columns.size());
+        for (ExportColumn column : columns) {
+            fields.add(new Field(column.getName(), FieldType.nullable(toArrowType(column)), null));
+        }
+
+        root = VectorSchemaRoot.create(new Schema(fields), allocator);
+        setters = new ValueSetter[columns.size()];
+        for (int i = 0; i < setters.length; i++) {
+            setters[i] = createSetter(root.getVector(i));
+        }
+
+        // 关闭通道时不关闭调用方的输出流
+        fileWriter = new ArrowFileWriter(root, null, Channels.newChannel(StreamUtils.nonClosing(outputStream)));
+        fileWriter.start();
+        root.allocateNew();
+    }
+
+    @Override
+    public void writeRow(Object[] values) throws IOException {
+        for (int i = 0; i < setters.length; i++) {
+            if (values[i] == null) {
+                ((FieldVector) root.getVector(i)).setNull(batchRows);
+            } else {
+                setters[i].set(batchRows, values[i]);
+            }
+        }
+
+        if (++batchRows >= BATCH_SIZE) {
+            writeBatch();
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        if (batchRows > 0) {
+            writeBatch();
+        }
+        fileWriter.end();
+        outputStream.flush();
+    }
+
+    @Override
+    public void close() {
+        if (fileWriter != null) {
+            fileWriter.close();
+        }
+        if (root != null) {
+            root.close();
+        }
+        allocator.close();
+    }
+
+    private void writeBatch() throws IOException {
+        root.setRowCount(batchRows);
+        fileWriter.writeBatch();
+        root.allocateNew();
+        batchRows = 0;
+    }
+
+    /**
+     * JDBC类型映射为Arrow类型，无法精确映射的类型按字符串输出
+     */
+    private static ArrowType toArrowType(ExportColumn column) {
+        switch (column.getSqlType()) {
+            case Types.TINYINT:
+            case Types.SMALLINT:
+                return new ArrowType.Int(32, true);
+            case Types.INTEGER:
+                // INT UNSIGNED 会以Long返回，统一使用64位
+                return new ArrowType.Int(64, true);
+            case Types.BIGINT:
+                // BIGINT UNSIGNED 以BigInteger返回，可能超出有符号64位范围
+                return column.isSigned() ? new ArrowType.Int(64, true) : new ArrowType.Decimal(20, 0, 128);
+            case Types.REAL:
+            case Types.FLOAT:
+            case Types.DOUBLE:
+                return new ArrowType.FloatingPoint(FloatingPointPrecision.DOUBLE);
+            case Types.DECIMAL:
+            case Types.NUMERIC:
+                if (column.getPrecision() > 0 && column.getPrecision() <= MAX_DECIMAL_PRECISION) {
+                    return new ArrowType.Decimal(column.getPrecision(), Math.max(column.getScale(), 0), 128);
+                }
+                return ArrowType.Utf8.INSTANCE;
+            case Types.BOOLEAN:
+                return ArrowType.Bool.INSTANCE;
+            case Types.BIT:
+                return column.getPrecision() <= 1 ? ArrowType.Bool.INSTANCE : ArrowType.Binary.INSTANCE;
+            case Types.DATE:
+                return new ArrowType.Date(DateUnit.DAY);
+            case Types.TIME:
+                return new ArrowType.Time(TimeUnit.MILLISECOND, 32);
+            case Types.TIMESTAMP:
+                return new ArrowType.Timestamp(TimeUnit.MILLISECOND, null);
+            case Types.BINARY:
+            case Types.VARBINARY:
+            case Types.LONGVARBINARY:
+            case Types.BLOB:
+                return ArrowType.Binary.INSTANCE;
+            default:
+                return ArrowType.Utf8.INSTANCE;
+        }
+    }
+
+    /**
+     * 按向量类型生成赋值函数，避免逐值判断类型
+     */
+    private static ValueSetter createSetter(FieldVector vector) {
+        if (vector instanceof IntVector) {
+            IntVector v = (IntVector) vector;
+            return (index, value) -> v.setSafe(index, ((Number) value).intValue());
+        }
+        if (vector instanceof BigIntVector) {
+            BigIntVector v = (BigIntVector) vector;
+            return (index, value) -> v.setSafe(index, ((Number) value).longValue());
+        }
+        if (vector instanceof Float8Vector) {
+            Float8Vector v = (Float8Vector) vector;
+            return (index, value) -> v.setSafe(index, ((Number) value).doubleValue());
+        }
+        if (vector instanceof DecimalVector) {
+            DecimalVector v = (DecimalVector) vector;
+            int scale = v.getScale();
+            return (index, value) -> v.setSafe(index, toBigDecimal(value).setScale(scale, RoundingMode.HALF_UP));
+        }
+        if (vector instanceof BitVector) {
+            BitVector v = (BitVector) vector;
+            return (index, value) -> v.setSafe(index, toBoolean(value) ? 1 : 0);
+        }
+        if (vector instanceof DateDayVector) {
+            DateDayVector v = (DateDayVector) vector;
+            return (index, value) -> v.setSafe(index, (int) toLocalDate(value).toEpochDay());
+        }
+        if (vector instanceof TimeMilliVector) {
+            TimeMilliVector v = (TimeMilliVector) vector;
+            return (index, value) -> v.setSafe(index, (int) (toLocalTime(value).toNanoOfDay() / 1_000_000));
+        }
+        if (vector instanceof TimeStampMilliVector) {
+            TimeStampMilliVector v = (TimeStampMilliVector) vector;
+            return (index, value) -> v.setSafe(index, toLocalDateTime(value).toInstant(ZoneOffset.UTC).toEpochMilli());
+        }
+        if (vector instanceof VarBinaryVector) {
+            VarBinaryVector v = (VarBinaryVector) vector;
+            return (index, value) -> v.setSafe(index, value instanceof byte[]
+                    ? (byte[]) value : value.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        VarCharVector v = (VarCharVector) vector;
+        return (index, value) -> v.setSafe(index, value.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static BigDecimal toBigDecimal(Object value) {
+        if (value instanceof BigDecimal) {
+            return (BigDecimal) value;
+        }
+        if (value instanceof BigInteger) {
+            return new BigDecimal((BigInteger) value);
+        }
+        return new BigDecimal(value.toString());
+    }
+
+    private static boolean toBoolean(Object value) {
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        if (value instanceof Number) {
+            return ((Number) value).intValue() != 0;
+        }
+        if (value instanceof byte[]) {
+            byte[] bytes = (byte[]) value;
+            return bytes.length > 0 && bytes[bytes.length - 1] != 0;
+        }
+        return Boolean.parseBoolean(value.toString());
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        if (value instanceof LocalDate) {
+            return (LocalDate) value;
+        }
+        if (value instanceof java.sql.Date) {
+            return ((java.sql.Date) value).toLocalDate();
+        }
+        return toLocalDateTime(value).toLocalDate();
+    }
+
+    private static LocalTime toLocalTime(Object value) {
+        if (value instanceof LocalTime) {
+            return (LocalTime) value;
+        }
+        if (value instanceof java.sql.Time) {
+            return ((java.sql.Time) value).toLocalTime();
+        }
+        return toLocalDateTime(value).toLocalTime();
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof LocalDateTime) {
+            return (LocalDateTime) value;
+        }
+        if (value instanceof java.sql.Timestamp) {
+            return ((java.sql.Timestamp) value).toLocalDateTime();
+        }
+        if (value instanceof java.util.Date) {
+            return new java.sql.Timestamp(((java.util.Date) value).getTime()).toLocalDateTime();
+        }
+        if (value instanceof LocalDate) {
+            return ((LocalDate) value).atStartOfDay();
+        }
+        return LocalDateTime.parse(value.toString().replace(' ', 'T'));
+    }
+
+    /**
+     * 单列赋值函数
+     */
+    @FunctionalInterface
+    private interface ValueSetter {
+        void set(int index, Object value);
+    }
+}
@@ -0,0 +1,40 @@
+package db.cl.gao.service.export;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 统计写出行数的写入器包装，用于导出任务进度
+ */
+public class CountingExportWriter implements ExportWriter {
+
+    private final ExportWriter delegate;
+    private final AtomicLong rowCounter;
+
+    public CountingExportWriter(ExportWriter delegate, AtomicLong rowCounter) {
+        this.delegate = delegate;
+        this.rowCounter = rowCounter;
+    }
+
+    @Override
+    public void writeHeader(List<ExportColumn> columns) throws IOException {
+        delegate.writeHeader(columns);
+    }
+
+    @Override
+    public void writeRow(Object[] values) throws IOException {
+        delegate.writeRow(values);
+        rowCounter.incrementAndGet();
+    }
+
+    @Override
+    public void finish() throws IOException {
+        delegate.finish();
+    }
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+}
@@ -0,0 +1,53 @@
+package db.cl.gao.service.export;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * 统计写出字节数的输出流，可在写出时检查取消标记
+ */
+public class CountingOutputStream extends FilterOutputStream {
+
+    private final AtomicLong count = new AtomicLong();
+    private final BooleanSupplier cancelled;
+
+    public CountingOutputStream(OutputStream out) {
+        this(out, () -> false);
+    }
+
+    /**
+     * @param cancelled 取消标记，为true时写出抛出InterruptedIOException，使阻塞在查询结果上的导出尽快结束
+     */
+    public CountingOutputStream(OutputStream out, BooleanSupplier cancelled) {
+        super(out);
+        this.cancelled = cancelled;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        checkCancelled();
+        out.write(b);
+        count.incrementAndGet();
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        checkCancelled();
+        out.write(b, off, len);
+        count.addAndGet(len);
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    private void checkCancelled() throws InterruptedIOException {
+        if (cancelled.getAsBoolean()) {
+            throw new InterruptedIOException("导出已取消");
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package db.cl.gao.service.export;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CSV导出写入器
+ */
+public class CsvExportWriter implements ExportWriter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final CSVPrinter csvPrinter;
+
+    public CsvExportWriter(OutputStream outputStream) throws IOException {
+        BufferedWriter writer = new BufferedWriter(
+                new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), BUFFER_SIZE);
+        this.csvPrinter = new CSVPrinter(writer, CSVFormat.DEFAULT);
+    }
+
+    @Override
+    public void writeHeader(List<ExportColumn> columns) throws IOException {
+        List<String> headers = new ArrayList<>(columns.size());
+        for (ExportColumn column : columns) {
+            headers.add(column.getName());
+        }
+        csvPrinter.printRecord(headers);
+    }
+
+    @Override
+    public void writeRow(Object[] values) throws IOException {
+        csvPrinter.printRecord(values);
+    }
+
+    @Override
+    public void finish() throws IOException {
+        csvPrinter.flush();
+    }
+}
@@ -0,0 +1,121 @@
+package db.cl.gao.service.export;
+
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.util.WorkbookUtil;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Excel导出写入器
+ * <p>
+ * 基于SXSSF滑动窗口，内存中只保留最近的若干行，更早的行刷写到压缩临时文件；
+ * 单个sheet超过Excel行数上限时自动新建sheet
+ */
+public class ExcelExportWriter implements ExportWriter {
+
+    private static final int ROW_ACCESS_WINDOW = 500;
+    private static final int MAX_ROWS_PER_SHEET = SpreadsheetVersion.EXCEL2007.getMaxRows();
+    private static final int MAX_TEXT_LENGTH = SpreadsheetVersion.EXCEL2007.getMaxTextLength();
+
+    private final OutputStream outputStream;
+    private final String sheetName;
+    private final SXSSFWorkbook workbook;
+    private final CellStyle dateStyle;
+
+    private List<ExportColumn> columns;
+    private Sheet sheet;
+    private int sheetCount;
+    private int rowIndex;
+
+    public ExcelExportWriter(OutputStream outputStream, String sheetName) {
+        this.outputStream = outputStream;
+        this.sheetName = sheetName;
+        this.workbook = new SXSSFWorkbook(ROW_ACCESS_WINDOW);
+        this.workbook.setCompressTempFiles(true);
+        this.dateStyle = workbook.createCellStyle();
+        this.dateStyle.setDataFormat(workbook.getCreationHelper()
+                .createDataFormat().getFormat("yyyy-mm-dd hh:mm:ss"));
+    }
+
+    @Override
+    public void writeHeader(List<ExportColumn> columns) {
+        this.columns = columns;
+        newSheet();
+    }
+
+    @Override
+    public void writeRow(Object[] values) {
+        if (rowIndex >= MAX_ROWS_PER_SHEET) {
+            newSheet();
+        }
+
+        Row row = sheet.createRow(rowIndex++);
+        for (int i = 0; i < values.length; i++) {
+            setCellValue(row.createCell(i), values[i]);
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        workbook.write(outputStream);
+        outputStream.flush();
+    }
+
+    @Override
+    public void close() {
+        // 删除SXSSF临时文件
+        workbook.dispose();
+    }
+
+    /**
+     * 新建sheet并写入表头，第二个sheet起以序号区分
+     */
+    private void newSheet() {
+        sheetCount++;
+        String name = sheetCount == 1 ? sheetName : sheetName + "_" + sheetCount;
+        sheet = workbook.createSheet(WorkbookUtil.createSafeSheetName(name));
+
+        Row headerRow = sheet.createRow(0);
+        for (int i = 0; i < columns.size(); i++) {
+            headerRow.createCell(i).setCellValue(columns.get(i).getName());
+        }
+        rowIndex = 1;
+    }
+
+    /**
+     * 设置单元格值
+     */
+    private void setCellValue(Cell cell, Object value) {
+        if (value == null) {
+            return;
+        }
+
+        if (value instanceof String) {
+            cell.setCellValue(truncate((String) value));
+        } else if (value instanceof Number) {
+            cell.setCellValue(((Number) value).doubleValue());
+        } else if (value instanceof Boolean) {
+            cell.setCellValue((Boolean) value);
+        } else if (value instanceof Date) {
+            cell.setCellValue((Date) value);
+            cell.setCellStyle(dateStyle);
+        } else {
+            cell.setCellValue(truncate(value.toString()));
+        }
+    }
+
+    /**
+     * 单元格文本超过Excel上限时截断，避免整个导出失败
+     */
+    private String truncate(String text) {
+        return text.length() > MAX_TEXT_LENGTH ? text.substring(0, MAX_TEXT_LENGTH) : text;
+    }
+}
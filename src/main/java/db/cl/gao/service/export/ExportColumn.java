@@ -0,0 +1,55 @@
+package db.cl.gao.service.export;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.support.JdbcUtils;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 导出列信息
+ */
+@Getter
+@RequiredArgsConstructor
+public class ExportColumn {
+
+    private final String name;
+
+    /** java.sql.Types */
+    private final int sqlType;
+
+    private final int precision;
+
+    private final int scale;
+
+    /** 数值列是否有符号，UNSIGNED列为false */
+    private final boolean signed;
+
+    /**
+     * 从结果集元数据构建列信息
+     */
+    public static List<ExportColumn> fromMetaData(ResultSetMetaData metaData) throws SQLException {
+        int columnCount = metaData.getColumnCount();
+        List<ExportColumn> columns = new ArrayList<>(columnCount);
+        for (int i = 1; i <= columnCount; i++) {
+            columns.add(new ExportColumn(JdbcUtils.lookupColumnName(metaData, i), metaData.getColumnType(i),
+                    metaData.getPrecision(i), metaData.getScale(i), metaData.isSigned(i)));
+        }
+        return columns;
+    }
+
+    /**
+     * 读取当前行的所有列值
+     */
+    public static Object[] readValues(ResultSet rs, int columnCount) throws SQLException {
+        Object[] values = new Object[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            values[i] = JdbcUtils.getResultSetValue(rs, i + 1);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,36 @@
+package db.cl.gao.service.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * 导出写入器：随游标逐行写出，不持有整表数据
+ * <p>
+ * 写入器不负责关闭底层输出流，由调用方统一管理
+ */
+public interface ExportWriter extends Closeable {
+
+    /**
+     * 写入表头
+     */
+    void writeHeader(List<ExportColumn> columns) throws IOException;
+
+    /**
+     * 写入一行数据，values顺序与表头一致
+     */
+    void writeRow(Object[] values) throws IOException;
+
+    /**
+     * 写出剩余缓冲内容
+     */
+    void finish() throws IOException;
+
+    /**
+     * 释放写入器自身占用的资源（如临时文件），不关闭底层输出流
+     */
+    @Override
+    default void close() throws IOException {
+        // 默认无需释放
+    }
+}
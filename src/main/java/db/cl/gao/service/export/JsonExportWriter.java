@@ -0,0 +1,65 @@
+package db.cl.gao.service.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * JSON导出写入器
+ * <p>
+ * 通过JsonGenerator逐行写出：普通模式输出对象数组，NDJSON模式每行一个对象
+ */
+public class JsonExportWriter implements ExportWriter {
+
+    private final JsonGenerator generator;
+    private final boolean lineDelimited;
+
+    private SerializedString[] fieldNames;
+
+    public JsonExportWriter(ObjectMapper objectMapper, OutputStream outputStream,
+                            boolean lineDelimited) throws IOException {
+        this.generator = objectMapper.createGenerator(outputStream);
+        this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.lineDelimited = lineDelimited;
+        if (lineDelimited) {
+            this.generator.setRootValueSeparator(new SerializedString("\n"));
+        }
+    }
+
+    @Override
+    public void writeHeader(List<ExportColumn> columns) throws IOException {
+        // 字段名只序列化一次
+        fieldNames = new SerializedString[columns.size()];
+        for (int i = 0; i < fieldNames.length; i++) {
+            fieldNames[i] = new SerializedString(columns.get(i).getName());
+        }
+
+        if (!lineDelimited) {
+            generator.writeStartArray();
+        }
+    }
+
+    @Override
+    public void writeRow(Object[] values) throws IOException {
+        generator.writeStartObject();
+        for (int i = 0; i < fieldNames.length; i++) {
+            generator.writeFieldName(fieldNames[i]);
+            generator.writeObject(values[i]);
+        }
+        generator.writeEndObject();
+    }
+
+    @Override
+    public void finish() throws IOException {
+        if (lineDelimited) {
+            generator.writeRaw('\n');
+        } else {
+            generator.writeEndArray();
+        }
+        generator.flush();
+    }
+}
@@ -0,0 +1,238 @@
+package db.cl.gao.service.export;
+
+import db.cl.gao.common.excep.DbException;
+import db.cl.gao.service.DatabaseService;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 并行区间导出
+ * <p>
+ * 多个工作线程各自持有一个连接，按顺序领取区间分片并流式读取；
+ * 每个分片通过有界队列交给写出线程，写出线程严格按分片顺序输出，内存占用与分片数无关。
+ * 结束时先取消仍在执行的查询，流式结果集关闭时不必读完剩余的行
+ */
+@Slf4j
+public class ParallelRangeExporter {
+
+    private static final int CHUNK_QUEUE_CAPACITY = 1000;
+    private static final long POLL_TIMEOUT_MILLIS = 200;
+    private static final Object[] END_OF_CHUNK = new Object[0];
+
+    private final DataSource dataSource;
+    private final int parallelism;
+    private final String snapshotTable;
+
+    private final AtomicInteger nextChunk = new AtomicInteger();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private final Set<Statement> activeStatements = ConcurrentHashMap.newKeySet();
+    private volatile boolean cancelled;
+
+    /**
+     * @param snapshotTable 不为空时所有工作线程读取该表的同一一致性快照
+     */
+    public ParallelRangeExporter(DataSource dataSource, int parallelism, String snapshotTable) {
+        this.dataSource = dataSource;
+        this.parallelism = parallelism;
+        this.snapshotTable = snapshotTable;
+    }
+
+    /**
+     * 执行并行导出，返回写出行数
+     *
+     * @param metaSql   不返回数据、仅用于获取列信息的SQL
+     * @param chunkSqls 按输出顺序排列的分片SQL
+     */
+    public long export(String metaSql, List<String> chunkSqls, ExportWriter writer) throws IOException {
+        List<BlockingQueue<Object[]>> chunks = new ArrayList<>(chunkSqls.size());
+        for (int i = 0; i < chunkSqls.size(); i++) {
+            chunks.add(new LinkedBlockingQueue<>(CHUNK_QUEUE_CAPACITY));
+        }
+
+        int workerCount = Math.min(parallelism, chunkSqls.size());
+        List<Connection> connections = new ArrayList<>(workerCount);
+        ExecutorService executor = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "export-range-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            for (int i = 0; i < workerCount; i++) {
+                connections.add(dataSource.getConnection());
+            }
+            writer.writeHeader(readColumns(connections.get(0), metaSql));
+
+            if (snapshotTable != null) {
+                startConsistentSnapshot(connections);
+            }
+
+            for (Connection connection : connections) {
+                executor.execute(() -> runWorker(connection, chunkSqls, chunks));
+            }
+
+            long rowCount = 0;
+            for (BlockingQueue<Object[]> chunk : chunks) {
+                Object[] row;
+                while ((row = takeRow(chunk)) != END_OF_CHUNK) {
+                    writer.writeRow(row);
+                    rowCount++;
+                }
+            }
+
+            writer.finish();
+            return rowCount;
+        } catch (SQLException e) {
+            throw new DbException("并行导出失败: " + e.getMessage(), e);
+        } finally {
+            cancelled = true;
+            cancelActiveStatements();
+            executor.shutdown();
+            awaitWorkers(executor);
+            for (Connection connection : connections) {
+                closeQuietly(connection);
+            }
+        }
+    }
+
+    /**
+     * 工作线程：按递增顺序领取分片，保证写出线程等待的分片一定已被领取
+     */
+    private void runWorker(Connection connection, List<String> chunkSqls, List<BlockingQueue<Object[]>> chunks) {
+        try {
+            int index;
+            while (!cancelled && (index = nextChunk.getAndIncrement()) < chunkSqls.size()) {
+                BlockingQueue<Object[]> chunk = chunks.get(index);
+                try (PreparedStatement ps = DatabaseService.prepareStreamingStatement(connection, chunkSqls.get(index))) {
+                    activeStatements.add(ps);
+                    if (cancelled) {
+                        activeStatements.remove(ps);
+                        return;
+                    }
+                    try (ResultSet rs = ps.executeQuery()) {
+                        int columnCount = rs.getMetaData().getColumnCount();
+                        while (rs.next()) {
+                            putRow(chunk, ExportColumn.readValues(rs, columnCount));
+                        }
+                    } finally {
+                        activeStatements.remove(ps);
+                    }
+                }
+                putRow(chunk, END_OF_CHUNK);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure.compareAndSet(null, e);
+        } catch (Exception e) {
+            log.error("导出分片读取失败", e);
+            failure.compareAndSet(null, e);
+        }
+    }
+
+    private void putRow(BlockingQueue<Object[]> chunk, Object[] row) throws InterruptedException {
+        while (!chunk.offer(row, POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+            if (cancelled) {
+                throw new InterruptedException("导出已取消");
+            }
+        }
+    }
+
+    private Object[] takeRow(BlockingQueue<Object[]> chunk) {
+        try {
+            Object[] row;
+            while ((row = chunk.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) == null) {
+                Throwable error = failure.get();
+                if (error != null) {
+                    throw new DbException("并行导出失败: " + error.getMessage(), error);
+                }
+            }
+            return row;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DbException("并行导出被中断", e);
+        }
+    }
+
+    private List<ExportColumn> readColumns(Connection connection, String metaSql) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(metaSql)) {
+            return ExportColumn.fromMetaData(rs.getMetaData());
+        }
+    }
+
+    /**
+     * 短暂加表读锁阻止写入，期间各连接开启一致性快照事务，使所有工作线程看到同一版本数据
+     */
+    private void startConsistentSnapshot(List<Connection> connections) throws SQLException {
+        try (Connection lockConnection = dataSource.getConnection();
+             Statement lockStatement = lockConnection.createStatement()) {
+            lockStatement.execute("LOCK TABLES " + snapshotTable + " READ");
+            try {
+                for (Connection connection : connections) {
+                    connection.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+                    connection.setAutoCommit(false);
+                    try (Statement statement = connection.createStatement()) {
+                        statement.execute("START TRANSACTION WITH CONSISTENT SNAPSHOT");
+                    }
+                }
+            } finally {
+                lockStatement.execute("UNLOCK TABLES");
+            }
+        }
+    }
+
+    /**
+     * 取消工作线程正在执行的查询；在取消标记置位后才登记的语句由工作线程自行检查标记后放弃执行
+     */
+    private void cancelActiveStatements() {
+        for (Statement statement : activeStatements) {
+            try {
+                statement.cancel();
+            } catch (SQLException e) {
+                log.warn("取消导出查询失败", e);
+            }
+        }
+    }
+
+    private void awaitWorkers(ExecutorService executor) {
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void closeQuietly(Connection connection) {
+        try {
+            if (!connection.getAutoCommit()) {
+                // 只读快照事务，直接结束
+                connection.commit();
+                connection.setAutoCommit(true);
+            }
+            connection.close();
+        } catch (SQLException e) {
+            log.warn("关闭导出连接失败", e);
+        }
+    }
+}
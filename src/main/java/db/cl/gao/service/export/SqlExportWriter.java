@@ -0,0 +1,147 @@
+package db.cl.gao.service.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * SQL导出写入器
+ * <p>
+ * 列清单只在写表头时拼接一次；扩展插入模式下多行合并为一条INSERT，
+ * 按行数或语句长度（按字符数估算）切分，回放时可大幅减少往返次数
+ */
+public class SqlExportWriter implements ExportWriter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+    private final Writer writer;
+    private final String tableName;
+    private final int rowsPerStatement;
+    private final int maxStatementLength;
+
+    private String insertPrefix;
+    private final StringBuilder valuesBuilder = new StringBuilder();
+    private int statementRows;
+    private long statementLength;
+    private long rowCount;
+
+    /**
+     * @param rowsPerStatement   每条INSERT的最大行数，1表示逐行INSERT
+     * @param maxStatementLength 每条INSERT的最大长度
+     */
+    public SqlExportWriter(OutputStream outputStream, String tableName,
+                           int rowsPerStatement, int maxStatementLength) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), BUFFER_SIZE);
+        this.tableName = tableName;
+        this.rowsPerStatement = Math.max(rowsPerStatement, 1);
+        this.maxStatementLength = Math.max(maxStatementLength, 1);
+    }
+
+    @Override
+    public void writeHeader(List<ExportColumn> columns) throws IOException {
+        writer.write("-- 导出表: " + tableName + "\n");
+        writer.write("-- 导出时间: " + new Date() + "\n\n");
+
+        StringBuilder prefix = new StringBuilder();
+        prefix.append("INSERT INTO ").append(tableName).append(" (");
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                prefix.append(", ");
+            }
+            prefix.append(columns.get(i).getName());
+        }
+        prefix.append(") VALUES ");
+        insertPrefix = prefix.toString();
+    }
+
+    @Override
+    public void writeRow(Object[] values) throws IOException {
+        valuesBuilder.setLength(0);
+        valuesBuilder.append('(');
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                valuesBuilder.append(", ");
+            }
+            appendValue(valuesBuilder, values[i]);
+        }
+        valuesBuilder.append(')');
+
+        if (statementRows > 0 && (statementRows >= rowsPerStatement
+                || statementLength + valuesBuilder.length() > maxStatementLength)) {
+            endStatement();
+        }
+
+        if (statementRows == 0) {
+            writer.write(insertPrefix);
+            statementLength = insertPrefix.length();
+        } else {
+            writer.write(",\n");
+            statementLength += 2;
+        }
+
+        writer.append(valuesBuilder);
+        statementLength += valuesBuilder.length();
+        statementRows++;
+        rowCount++;
+    }
+
+    @Override
+    public void finish() throws IOException {
+        if (statementRows > 0) {
+            endStatement();
+        }
+        if (rowCount == 0) {
+            writer.write("-- 无数据\n");
+        }
+        writer.flush();
+    }
+
+    private void endStatement() throws IOException {
+        writer.write(";\n");
+        statementRows = 0;
+        statementLength = 0;
+    }
+
+    /**
+     * 追加SQL字面量
+     */
+    private static void appendValue(StringBuilder builder, Object value) {
+        if (value == null) {
+            builder.append("NULL");
+        } else if (value instanceof Number) {
+            builder.append(value);
+        } else if (value instanceof Boolean) {
+            builder.append(Boolean.TRUE.equals(value) ? '1' : '0');
+        } else if (value instanceof byte[]) {
+            byte[] bytes = (byte[]) value;
+            if (bytes.length == 0) {
+                builder.append("''");
+                return;
+            }
+            builder.append("0x");
+            for (byte b : bytes) {
+                builder.append(HEX_DIGITS[(b >> 4) & 0x0F]).append(HEX_DIGITS[b & 0x0F]);
+            }
+        } else {
+            String text = value.toString();
+            builder.append('\'');
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == '\'') {
+                    builder.append("''");
+                } else if (c == '\\') {
+                    builder.append("\\\\");
+                } else {
+                    builder.append(c);
+                }
+            }
+            builder.append('\'');
+        }
+    }
+}
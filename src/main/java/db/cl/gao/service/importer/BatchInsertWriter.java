@@ -0,0 +1,205 @@
+package db.cl.gao.service.importer;
+
+import db.cl.gao.common.enums.ImportErrorType;
+import db.cl.gao.common.excep.DbException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.SqlTypeValue;
+import org.springframework.jdbc.core.StatementCreatorUtils;
+
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC批量插入写入器
+ * <p>
+ * 每种列组合按导入模式预编译一条INSERT，行数据通过addBatch累积，满batchSize执行一次executeBatch；
+ * 驱动开启rewriteBatchedStatements时每批会被改写为一条多行INSERT，其中一行失败整条语句失败，
+ * 此时撤销本批后逐行重新执行，只有真正失败的行计为错误。
+ * 连接由调用方管理，写入器只负责语句
+ *
+ * @param <R> 原始行类型，插入失败时回传给错误处理器
+ */
+@Slf4j
+public class BatchInsertWriter<R> implements AutoCloseable {
+
+    private final Connection connection;
+    private final InsertSqlBuilder insertSql;
+    private final int batchSize;
+    private final ImportErrorHandler<R> errorHandler;
+    private final boolean transactional;
+
+    private final Map<List<String>, PendingBatch> batches = new LinkedHashMap<>();
+    private long insertedRows;
+
+    /**
+     * @param errorHandler 行插入失败时的回调，参数为原始行、错误类别和错误信息
+     */
+    public BatchInsertWriter(Connection connection, InsertSqlBuilder insertSql, int batchSize,
+                             ImportErrorHandler<R> errorHandler) throws SQLException {
+        this.connection = connection;
+        this.insertSql = insertSql;
+        this.batchSize = batchSize;
+        this.errorHandler = errorHandler;
+        this.transactional = !connection.getAutoCommit();
+    }
+
+    /**
+     * 添加一行，values与columns按位置对应
+     *
+     * @param source 原始行，仅用于错误回调
+     */
+    public void add(List<String> columns, Object[] values, R source) throws SQLException {
+        PendingBatch batch = batches.get(columns);
+        if (batch == null) {
+            batch = new PendingBatch(connection.prepareStatement(insertSql.build(columns)));
+            batches.put(columns, batch);
+        }
+
+        setParameters(batch.statement, values);
+        batch.statement.addBatch();
+        batch.values.add(values);
+        batch.sources.add(source);
+
+        if (batch.sources.size() >= batchSize) {
+            execute(batch);
+        }
+    }
+
+    /**
+     * 执行所有未提交的批次
+     */
+    public void flush() throws SQLException {
+        for (PendingBatch batch : batches.values()) {
+            if (!batch.sources.isEmpty()) {
+                execute(batch);
+            }
+        }
+    }
+
+    /**
+     * 已成功写入的行数，UPSERT/IGNORE模式下包含被更新或跳过的冲突行
+     */
+    public long getInsertedRows() {
+        return insertedRows;
+    }
+
+    @Override
+    public void close() {
+        for (PendingBatch batch : batches.values()) {
+            try {
+                batch.statement.close();
+            } catch (SQLException e) {
+                log.warn("关闭批量插入语句失败", e);
+            }
+        }
+        batches.clear();
+    }
+
+    /**
+     * 执行一个批次。事务中先设置保存点，批次失败时回滚到保存点再逐行执行：
+     * 改写后的多行INSERT可能被驱动按max_allowed_packet拆成多条，部分已经成功，更新计数无法定位失败的行
+     */
+    private void execute(PendingBatch batch) throws SQLException {
+        List<R> sources = batch.sources;
+        try {
+            Savepoint savepoint = transactional ? connection.setSavepoint() : null;
+            try {
+                int[] counts = batch.statement.executeBatch();
+                insertedRows += countSucceeded(counts, sources, null);
+            } catch (BatchUpdateException e) {
+                int[] counts = e.getUpdateCounts();
+                if (savepoint == null && counts != null && counts.length == sources.size()) {
+                    // 自动提交时已执行的行无法撤销，只能按驱动返回的计数定位失败的行
+                    insertedRows += countSucceeded(counts, sources, e);
+                } else {
+                    if (savepoint != null) {
+                        connection.rollback(savepoint);
+                    }
+                    batch.statement.clearBatch();
+                    insertedRows += executeRowByRow(batch);
+                }
+            }
+            if (savepoint != null) {
+                connection.releaseSavepoint(savepoint);
+            }
+        } catch (SQLException e) {
+            throw new DbException("批量插入失败: " + e.getMessage(), e);
+        } finally {
+            batch.statement.clearBatch();
+            batch.values.clear();
+            sources.clear();
+        }
+    }
+
+    /**
+     * 逐行执行批次中的行，事务中每行使用保存点，失败的行回滚后不影响同一事务中的其他行
+     *
+     * @return 成功的行数
+     */
+    private int executeRowByRow(PendingBatch batch) throws SQLException {
+        int succeeded = 0;
+        for (int i = 0; i < batch.sources.size(); i++) {
+            setParameters(batch.statement, batch.values.get(i));
+            Savepoint savepoint = transactional ? connection.setSavepoint() : null;
+            try {
+                batch.statement.executeUpdate();
+                succeeded++;
+            } catch (SQLException e) {
+                if (savepoint != null) {
+                    connection.rollback(savepoint);
+                }
+                errorHandler.onError(batch.sources.get(i), ImportErrorType.of(e), "插入失败: " + e.getMessage());
+            }
+            if (savepoint != null) {
+                connection.releaseSavepoint(savepoint);
+            }
+        }
+        return succeeded;
+    }
+
+    private static void setParameters(PreparedStatement ps, Object[] values) throws SQLException {
+        for (int i = 0; i < values.length; i++) {
+            StatementCreatorUtils.setParameterValue(ps, i + 1, SqlTypeValue.TYPE_UNKNOWN, values[i]);
+        }
+    }
+
+    /**
+     * 统计成功行数；改写为多行INSERT时驱动返回SUCCESS_NO_INFO，按成功计
+     */
+    private int countSucceeded(int[] counts, List<R> sources, BatchUpdateException error) {
+        int succeeded = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == Statement.EXECUTE_FAILED) {
+                if (error != null) {
+                    errorHandler.onError(sources.get(i), ImportErrorType.of(error), "批量插入失败: " + error.getMessage());
+                } else {
+                    errorHandler.onError(sources.get(i), ImportErrorType.DATABASE, "批量插入失败");
+                }
+            } else {
+                succeeded++;
+            }
+        }
+        return succeeded;
+    }
+
+    /**
+     * 同一列组合的预编译语句及其未执行的行，保留参数用于逐行重试
+     */
+    private class PendingBatch {
+        private final PreparedStatement statement;
+        private final List<Object[]> values = new ArrayList<>();
+        private final List<R> sources = new ArrayList<>();
+
+        PendingBatch(PreparedStatement statement) {
+            this.statement = statement;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package db.cl.gao.service.importer;
+
+/**
+ * 导入列值转换器
+ * <p>
+ * 非法值返回{@link #INVALID}而不是抛出异常，常用实现见{@link ColumnConverters}
+ */
+@FunctionalInterface
+public interface ColumnConverter {
+
+    /**
+     * 非法值标记
+     */
+    Object INVALID = new Object();
+
+    /**
+     * 转换去除首尾空白后的非空字符串
+     *
+     * @return 转换后的值，格式不合法时返回{@link #INVALID}
+     */
+    Object convert(String value);
+}
@@ -0,0 +1,311 @@
+package db.cl.gao.service.importer;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.Year;
+import java.time.ZoneOffset;
+import java.util.Locale;
+
+/**
+ * 按列类型编译的值转换器
+ * <p>
+ * 每次导入按表结构的COLUMN_TYPE为每一列选择一个转换器，逐行按列下标调用。
+ * 数值和日期先按格式扫描再解析，非法值不经过异常
+ */
+public final class ColumnConverters {
+
+    private static final int MAX_SAFE_LONG_DIGITS = 18;
+    private static final int DATE_LENGTH = "yyyy-MM-dd".length();
+    private static final Object INVALID = ColumnConverter.INVALID;
+
+    public static final ColumnConverter STRING = value -> value;
+
+    public static final ColumnConverter INTEGER = value -> {
+        Long number = parseLong(value);
+        return number != null && number >= Integer.MIN_VALUE && number <= Integer.MAX_VALUE
+                ? (Object) number.intValue() : INVALID;
+    };
+
+    public static final ColumnConverter LONG = value -> {
+        Long number = parseLong(value);
+        return number != null ? number : INVALID;
+    };
+
+    public static final ColumnConverter UNSIGNED_BIGINT = value -> {
+        if (!isInteger(value)) {
+            return INVALID;
+        }
+        Long number = parseLong(value);
+        return number != null ? number : new BigInteger(value);
+    };
+
+    /**
+     * tinyint(1)和bit：兼容true/false
+     */
+    public static final ColumnConverter FLAG = value -> {
+        if ("true".equalsIgnoreCase(value)) {
+            return 1;
+        }
+        if ("false".equalsIgnoreCase(value)) {
+            return 0;
+        }
+        return INTEGER.convert(value);
+    };
+
+    public static final ColumnConverter DECIMAL = value -> isDecimal(value)
+            ? new BigDecimal(value) : INVALID;
+
+    public static final ColumnConverter DOUBLE = value -> isDecimal(value)
+            ? (Object) Double.parseDouble(value) : INVALID;
+
+    public static final ColumnConverter DATE = value -> {
+        LocalDateTime dateTime = parseDateTime(value);
+        return dateTime != null ? dateTime.toLocalDate() : INVALID;
+    };
+
+    /**
+     * 带时区偏移（Z、+08:00等，如JSON导出的TIMESTAMP）时按时刻转换为Timestamp，与导出时读取的方式对称
+     */
+    public static final ColumnConverter DATETIME = value -> {
+        int offsetStart = findOffset(value);
+        if (offsetStart < 0) {
+            LocalDateTime dateTime = parseDateTime(value);
+            return dateTime != null ? dateTime : INVALID;
+        }
+        LocalDateTime dateTime = parseDateTime(value.substring(0, offsetStart));
+        ZoneOffset offset = parseOffset(value, offsetStart);
+        return dateTime != null && offset != null ? Timestamp.from(dateTime.toInstant(offset)) : INVALID;
+    };
+
+    private ColumnConverters() {
+    }
+
+    /**
+     * 按information_schema.COLUMNS.COLUMN_TYPE选择转换器，未识别的类型按字符串写入，由数据库转换
+     */
+    public static ColumnConverter forColumnType(String columnType) {
+        if (columnType == null) {
+            return STRING;
+        }
+        String type = columnType.trim().toLowerCase(Locale.ROOT);
+        boolean unsigned = type.contains("unsigned");
+        int end = 0;
+        while (end < type.length() && Character.isLetter(type.charAt(end))) {
+            end++;
+        }
+        switch (type.substring(0, end)) {
+            case "tinyint":
+                return type.startsWith("tinyint(1)") ? FLAG : INTEGER;
+            case "bit":
+            case "bool":
+            case "boolean":
+                return FLAG;
+            case "smallint":
+            case "mediumint":
+            case "year":
+                return INTEGER;
+            case "int":
+            case "integer":
+                return unsigned ? LONG : INTEGER;
+            case "bigint":
+                return unsigned ? UNSIGNED_BIGINT : LONG;
+            case "decimal":
+            case "numeric":
+            case "dec":
+            case "fixed":
+                return DECIMAL;
+            case "float":
+            case "double":
+            case "real":
+                return DOUBLE;
+            case "date":
+                return DATE;
+            case "datetime":
+            case "timestamp":
+                return DATETIME;
+            default:
+                return STRING;
+        }
+    }
+
+    private static boolean isInteger(String value) {
+        int start = value.charAt(0) == '-' || value.charAt(0) == '+' ? 1 : 0;
+        if (start == value.length()) {
+            return false;
+        }
+        for (int i = start; i < value.length(); i++) {
+            if (!isDigit(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 解析整数，非整数或超出long范围时返回null
+     */
+    private static Long parseLong(String value) {
+        if (!isInteger(value)) {
+            return null;
+        }
+        int start = value.charAt(0) == '-' || value.charAt(0) == '+' ? 1 : 0;
+        if (value.length() - start <= MAX_SAFE_LONG_DIGITS) {
+            return Long.parseLong(value);
+        }
+        BigInteger number = new BigInteger(value);
+        return number.bitLength() < Long.SIZE ? number.longValue() : null;
+    }
+
+    /**
+     * [+-]digits[.digits][e[+-]digits]，整数部分和小数部分至少有一个数字
+     */
+    private static boolean isDecimal(String value) {
+        int i = value.charAt(0) == '-' || value.charAt(0) == '+' ? 1 : 0;
+        int digits = 0;
+        while (i < value.length() && isDigit(value.charAt(i))) {
+            i++;
+            digits++;
+        }
+        if (i < value.length() && value.charAt(i) == '.') {
+            i++;
+            while (i < value.length() && isDigit(value.charAt(i))) {
+                i++;
+                digits++;
+            }
+        }
+        if (digits == 0) {
+            return false;
+        }
+        if (i < value.length() && (value.charAt(i) == 'e' || value.charAt(i) == 'E')) {
+            i++;
+            if (i < value.length() && (value.charAt(i) == '-' || value.charAt(i) == '+')) {
+                i++;
+            }
+            int exponentStart = i;
+            while (i < value.length() && isDigit(value.charAt(i))) {
+                i++;
+            }
+            if (i == exponentStart) {
+                return false;
+            }
+        }
+        return i == value.length();
+    }
+
+    /**
+     * 按固定布局扫描日期时间：yyyy-M-d或yyyy/M/d，可选的时间部分以空格或T分隔，
+     * 格式为H:m[:s[.f]]，最多9位小数秒。格式或取值非法时返回null
+     */
+    private static LocalDateTime parseDateTime(String value) {
+        int[] pos = {0};
+        int year = readNumber(value, pos, 4, 4);
+        char separator = pos[0] < value.length() ? value.charAt(pos[0]) : 0;
+        if (year < 0 || (separator != '-' && separator != '/')) {
+            return null;
+        }
+        pos[0]++;
+        int month = readNumber(value, pos, 1, 2);
+        if (month < 1 || month > 12 || !expect(value, pos, separator)) {
+            return null;
+        }
+        int day = readNumber(value, pos, 1, 2);
+        if (day < 1 || day > Month.of(month).length(Year.isLeap(year))) {
+            return null;
+        }
+        if (pos[0] == value.length()) {
+            return LocalDate.of(year, month, day).atStartOfDay();
+        }
+
+        char timeSeparator = value.charAt(pos[0]++);
+        if (timeSeparator != ' ' && timeSeparator != 'T') {
+            return null;
+        }
+        int hour = readNumber(value, pos, 1, 2);
+        if (hour < 0 || hour > 23 || !expect(value, pos, ':')) {
+            return null;
+        }
+        int minute = readNumber(value, pos, 1, 2);
+        if (minute < 0 || minute > 59) {
+            return null;
+        }
+        int second = 0;
+        int nano = 0;
+        if (expect(value, pos, ':')) {
+            second = readNumber(value, pos, 1, 2);
+            if (second < 0 || second > 59) {
+                return null;
+            }
+            if (expect(value, pos, '.')) {
+                int fractionStart = pos[0];
+                nano = readNumber(value, pos, 1, 9);
+                if (nano < 0) {
+                    return null;
+                }
+                for (int i = pos[0] - fractionStart; i < 9; i++) {
+                    nano *= 10;
+                }
+            }
+        }
+        return pos[0] == value.length()
+                ? LocalDateTime.of(year, month, day, hour, minute, second, nano) : null;
+    }
+
+    /**
+     * 时间部分之后的偏移起始位置，没有时返回-1
+     */
+    private static int findOffset(String value) {
+        for (int i = DATE_LENGTH + 1; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == 'Z' || c == '+' || c == '-') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 解析Z、±HH、±HHMM或±HH:MM
+     */
+    private static ZoneOffset parseOffset(String value, int start) {
+        if (value.charAt(start) == 'Z') {
+            return start + 1 == value.length() ? ZoneOffset.UTC : null;
+        }
+        int sign = value.charAt(start) == '-' ? -1 : 1;
+        int[] pos = {start + 1};
+        int hours = readNumber(value, pos, 2, 2);
+        int minutes = 0;
+        if (pos[0] < value.length()) {
+            expect(value, pos, ':');
+            minutes = readNumber(value, pos, 2, 2);
+        }
+        if (hours < 0 || minutes < 0 || minutes > 59 || hours * 60 + minutes > 18 * 60 || pos[0] != value.length()) {
+            return null;
+        }
+        return ZoneOffset.ofTotalSeconds(sign * (hours * 3600 + minutes * 60));
+    }
+
+    private static int readNumber(String value, int[] pos, int minDigits, int maxDigits) {
+        int start = pos[0];
+        int number = 0;
+        while (pos[0] < value.length() && pos[0] - start < maxDigits && isDigit(value.charAt(pos[0]))) {
+            number = number * 10 + value.charAt(pos[0]++) - '0';
+        }
+        return pos[0] - start >= minDigits ? number : -1;
+    }
+
+    private static boolean expect(String value, int[] pos, char c) {
+        if (pos[0] < value.length() && value.charAt(pos[0]) == c) {
+            pos[0]++;
+            return true;
+        }
+        return false;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -0,0 +1,175 @@
+package db.cl.gao.service.importer;
+
+import db.cl.gao.common.Constant;
+import db.cl.gao.common.enums.ColumnViolation;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 按表结构编译的单列校验规则
+ * <p>
+ * 依次检查非空、类型、长度和枚举取值，与导入时的写入规则一致：空白视为NULL，
+ * 类型按{@link ColumnConverters}解析，字符串长度按COLUMN_TYPE中声明的字符数或TEXT类型的字节上限判断
+ */
+public class ColumnValidator {
+
+    private static final long TINYTEXT_BYTES = 255;
+    private static final long TEXT_BYTES = 65535;
+    private static final long MEDIUMTEXT_BYTES = 16777215;
+
+    private final String columnName;
+    private final String columnType;
+    private final boolean required;
+    private final boolean hasDefault;
+    private final ColumnConverter converter;
+    private final int maxChars;
+    private final long maxBytes;
+    private final Set<String> allowedValues;
+    private final boolean set;
+
+    private ColumnValidator(Map<String, Object> columnInfo) {
+        this.columnName = (String) columnInfo.get(Constant.COLUMN_NAME);
+        this.columnType = String.valueOf(columnInfo.get(Constant.COLUMN_TYPE));
+        String extra = String.valueOf(columnInfo.get("EXTRA")).toLowerCase(Locale.ROOT);
+        // 自增列写入NULL时由数据库生成值
+        this.required = "NO".equals(columnInfo.get("IS_NULLABLE")) && !extra.contains("auto_increment");
+        this.hasDefault = columnInfo.get("COLUMN_DEFAULT") != null;
+        this.converter = ColumnConverters.forColumnType(columnType);
+
+        String type = columnType.trim().toLowerCase(Locale.ROOT);
+        String baseType = baseType(type);
+        this.maxChars = "char".equals(baseType) || "varchar".equals(baseType) ? declaredLength(type) : -1;
+        this.maxBytes = textBytes(baseType);
+        this.set = "set".equals(baseType);
+        this.allowedValues = "enum".equals(baseType) || set ? parseValues(columnType) : null;
+    }
+
+    /**
+     * 按information_schema.COLUMNS中的一行编译规则
+     */
+    public static ColumnValidator of(Map<String, Object> columnInfo) {
+        return new ColumnValidator(columnInfo);
+    }
+
+    public String getColumnName() {
+        return columnName;
+    }
+
+    public String getColumnType() {
+        return columnType;
+    }
+
+    /**
+     * 未提供值时插入会失败：非空、无默认值且不是自增列
+     */
+    public boolean isRequiredWithoutDefault() {
+        return required && !hasDefault;
+    }
+
+    /**
+     * 校验一个原始值
+     *
+     * @return 不通过的类别，通过时返回null
+     */
+    public ColumnViolation check(String value) {
+        if (value == null || (value = value.trim()).isEmpty()) {
+            return required ? ColumnViolation.NULL : null;
+        }
+        if (converter.convert(value) == ColumnConverter.INVALID) {
+            return ColumnViolation.TYPE;
+        }
+        if (maxChars >= 0 && value.codePointCount(0, value.length()) > maxChars) {
+            return ColumnViolation.LENGTH;
+        }
+        // 每个char最多编码为3个字节，上限足够时不必编码
+        if (maxBytes >= 0 && value.length() * 3L > maxBytes
+                && value.getBytes(StandardCharsets.UTF_8).length > maxBytes) {
+            return ColumnViolation.LENGTH;
+        }
+        if (allowedValues != null && !isAllowed(value)) {
+            return ColumnViolation.ENUM;
+        }
+        return null;
+    }
+
+    private boolean isAllowed(String value) {
+        if (!set) {
+            return allowedValues.contains(value.toLowerCase(Locale.ROOT));
+        }
+        for (String element : value.split(",", -1)) {
+            if (!element.isEmpty() && !allowedValues.contains(element.toLowerCase(Locale.ROOT))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String baseType(String type) {
+        int end = 0;
+        while (end < type.length() && Character.isLetter(type.charAt(end))) {
+            end++;
+        }
+        return type.substring(0, end);
+    }
+
+    private static int declaredLength(String type) {
+        int start = type.indexOf('(');
+        int end = type.indexOf(')', start + 1);
+        if (start < 0 || end < 0) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(type.substring(start + 1, end).trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static long textBytes(String baseType) {
+        switch (baseType) {
+            case "tinytext":
+                return TINYTEXT_BYTES;
+            case "text":
+                return TEXT_BYTES;
+            case "mediumtext":
+                return MEDIUMTEXT_BYTES;
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * 解析enum('a','b')或set('a','b')中的取值，取值中的''表示一个单引号
+     */
+    private static Set<String> parseValues(String columnType) {
+        Set<String> values = new HashSet<>();
+        int start = columnType.indexOf('(');
+        if (start < 0) {
+            return values;
+        }
+        StringBuilder current = null;
+        for (int i = start + 1; i < columnType.length(); i++) {
+            char c = columnType.charAt(i);
+            if (current == null) {
+                if (c == '\'') {
+                    current = new StringBuilder();
+                }
+            } else if (c == '\'') {
+                if (i + 1 < columnType.length() && columnType.charAt(i + 1) == '\'') {
+                    current.append('\'');
+                    i++;
+                } else {
+                    values.add(current.toString().toLowerCase(Locale.ROOT));
+                    current = null;
+                }
+            } else {
+                current.append(c);
+            }
+        }
+        return values;
+    }
+}
@@ -0,0 +1,125 @@
+package db.cl.gao.service.importer;
+
+import org.apache.commons.csv.CSVRecord;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+
+/**
+ * 将CSV记录转换为LOAD DATA默认文本格式的输入流
+ * <p>
+ * 字段以制表符分隔、行以换行结束，特殊字符用反斜杠转义，空值写为\N。
+ * 每次只编码一条记录，驱动读取多少就解析多少，不缓存整个文件
+ */
+public class CsvLoadDataInputStream extends InputStream {
+
+    private static final String NULL_VALUE = "\\N";
+
+    private final Iterator<CSVRecord> records;
+    private final int[] columnIndexes;
+    private final StringBuilder line = new StringBuilder(256);
+
+    private byte[] buffer = new byte[0];
+    private int position;
+    private long recordCount;
+
+    /**
+     * @param columnIndexes 按LOAD DATA列清单顺序排列的CSV字段下标
+     */
+    public CsvLoadDataInputStream(Iterator<CSVRecord> records, int[] columnIndexes) {
+        this.records = records;
+        this.columnIndexes = columnIndexes;
+    }
+
+    /**
+     * 已读取的CSV记录数
+     */
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    @Override
+    public int read() {
+        if (!fill()) {
+            return -1;
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+        if (len == 0) {
+            return 0;
+        }
+        if (!fill()) {
+            return -1;
+        }
+        int count = Math.min(len, buffer.length - position);
+        System.arraycopy(buffer, position, b, off, count);
+        position += count;
+        return count;
+    }
+
+    private boolean fill() {
+        while (position >= buffer.length) {
+            if (!records.hasNext()) {
+                return false;
+            }
+            buffer = encode(records.next());
+            position = 0;
+        }
+        return true;
+    }
+
+    private byte[] encode(CSVRecord record) {
+        recordCount++;
+        line.setLength(0);
+        for (int i = 0; i < columnIndexes.length; i++) {
+            if (i > 0) {
+                line.append('\t');
+            }
+            int index = columnIndexes[i];
+            String value = index < record.size() ? record.get(index).trim() : "";
+            appendValue(value);
+        }
+        line.append('\n');
+        return line.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 与批量插入保持一致：空白为NULL，true/false写为1/0
+     */
+    private void appendValue(String value) {
+        if (value.isEmpty()) {
+            line.append(NULL_VALUE);
+        } else if ("true".equalsIgnoreCase(value)) {
+            line.append('1');
+        } else if ("false".equalsIgnoreCase(value)) {
+            line.append('0');
+        } else {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '\\':
+                        line.append("\\\\");
+                        break;
+                    case '\t':
+                        line.append("\\t");
+                        break;
+                    case '\n':
+                        line.append("\\n");
+                        break;
+                    case '\r':
+                        line.append("\\r");
+                        break;
+                    case '\0':
+                        line.append("\\0");
+                        break;
+                    default:
+                        line.append(c);
+                }
+            }
+        }
+    }
+}
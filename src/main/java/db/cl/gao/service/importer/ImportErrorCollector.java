@@ -0,0 +1,151 @@
+package db.cl.gao.service.importer;
+
+import db.cl.gao.common.enums.ImportErrorType;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 导入错误收集
+ * <p>
+ * 内存中只保留前maxSamples条错误样例和按类别的计数，全部失败行追加写入CSV错误报告，
+ * 报告文件在第一条错误出现时创建。会在转换线程和写入线程中并发调用
+ */
+@Slf4j
+public class ImportErrorCollector implements Closeable {
+
+    public static final String ERROR_COLUMN = "__error";
+    public static final String ERROR_TYPE_COLUMN = "__error_type";
+    private static final int MAX_SAMPLE_VALUE_LENGTH = 1000;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final String reportId;
+    private final File reportFile;
+    private final int maxSamples;
+
+    private final List<Map<String, Object>> samples = new ArrayList<>();
+    private final Map<ImportErrorType, Long> counts = new EnumMap<>(ImportErrorType.class);
+    private long errorCount;
+    private CSVPrinter printer;
+    private boolean reportFailed;
+
+    /**
+     * @param reportFile 错误报告文件，有错误时才创建
+     * @param maxSamples 最多保留的错误样例数
+     */
+    public ImportErrorCollector(String reportId, File reportFile, int maxSamples) {
+        this.reportId = reportId;
+        this.reportFile = reportFile;
+        this.maxSamples = maxSamples;
+    }
+
+    /**
+     * 记录一条失败的行或语句
+     *
+     * @param columns 报告列名，第一条错误决定报告表头
+     * @param values  与列名对应的原始值，多出的值忽略
+     */
+    public synchronized void add(List<String> columns, List<String> values, ImportErrorType type, String message) {
+        errorCount++;
+        counts.merge(type, 1L, Long::sum);
+        if (samples.size() < maxSamples) {
+            samples.add(createSample(columns, values, type, message));
+        }
+        if (!reportFailed) {
+            writeReport(columns, values, type, message);
+        }
+    }
+
+    public synchronized long getErrorCount() {
+        return errorCount;
+    }
+
+    public synchronized Map<ImportErrorType, Long> getCounts() {
+        return new EnumMap<>(counts);
+    }
+
+    public synchronized List<Map<String, Object>> getSamples() {
+        return new ArrayList<>(samples);
+    }
+
+    /**
+     * 错误报告ID，没有错误或报告写入失败时返回null
+     */
+    public synchronized String getReportId() {
+        return printer != null && !reportFailed ? reportId : null;
+    }
+
+    public File getReportFile() {
+        return reportFile;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (printer == null) {
+            return;
+        }
+        try {
+            printer.close();
+        } catch (IOException e) {
+            reportFailed = true;
+            log.warn("关闭导入错误报告失败: {}", reportFile, e);
+        }
+    }
+
+    private void writeReport(List<String> columns, List<String> values, ImportErrorType type, String message) {
+        try {
+            if (printer == null) {
+                BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(
+                        new FileOutputStream(reportFile), StandardCharsets.UTF_8), BUFFER_SIZE);
+                printer = new CSVPrinter(writer, CSVFormat.DEFAULT);
+                List<String> headers = new ArrayList<>(columns);
+                headers.add(ERROR_COLUMN);
+                headers.add(ERROR_TYPE_COLUMN);
+                printer.printRecord(headers);
+            }
+            List<Object> record = new ArrayList<>(columns.size() + 2);
+            for (int i = 0; i < columns.size(); i++) {
+                record.add(i < values.size() ? values.get(i) : null);
+            }
+            record.add(message);
+            record.add(type);
+            printer.printRecord(record);
+        } catch (IOException e) {
+            // 报告写不下去时只保留样例和计数，不影响导入本身
+            reportFailed = true;
+            log.warn("写入导入错误报告失败: {}", reportFile, e);
+        }
+    }
+
+    private static Map<String, Object> createSample(List<String> columns, List<String> values,
+                                                    ImportErrorType type, String message) {
+        Map<String, Object> sample = new LinkedHashMap<>();
+        for (int i = 0; i < columns.size(); i++) {
+            sample.put(columns.get(i), i < values.size() ? abbreviate(values.get(i)) : "");
+        }
+        sample.put(ERROR_COLUMN, message);
+        sample.put(ERROR_TYPE_COLUMN, type);
+        return sample;
+    }
+
+    /**
+     * 转储文件中的多行INSERT或超长文本可能很大，样例只保留开头部分
+     */
+    private static String abbreviate(String value) {
+        return value == null || value.length() <= MAX_SAMPLE_VALUE_LENGTH
+                ? value : value.substring(0, MAX_SAMPLE_VALUE_LENGTH) + "...";
+    }
+}
@@ -0,0 +1,19 @@
+package db.cl.gao.service.importer;
+
+import db.cl.gao.common.enums.ImportErrorType;
+
+/**
+ * 导入失败回调
+ *
+ * @param <R> 原始行或语句类型
+ */
+@FunctionalInterface
+public interface ImportErrorHandler<R> {
+
+    /**
+     * @param source  失败的原始行或语句
+     * @param type    错误类别
+     * @param message 错误信息
+     */
+    void onError(R source, ImportErrorType type, String message);
+}
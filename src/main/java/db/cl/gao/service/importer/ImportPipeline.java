@@ -0,0 +1,480 @@
+package db.cl.gao.service.importer;
+
+import db.cl.gao.common.enums.ImportErrorType;
+import db.cl.gao.common.excep.DbException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 分阶段导入流水线
+ * <p>
+ * 读取线程（调用方）将行按batchSize分块提交，不保序时也可由多个读取线程各用一个读取端并行提交，
+ * 转换线程池并行做类型转换和校验，写入线程各自持有一个连接执行批量插入。各阶段之间用有界队列衔接，
+ * 在途分块数受信号量限制，读取速度超过写入速度时读取线程阻塞。
+ * 要求保序时只使用一个写入线程，并按分块序号依次写入。
+ * 保序模式下可开启分段提交，写入线程每写满指定行数提交一次连接并回调最后一条记录的位置。
+ * 进度计数实时更新，进度被取消时读取线程在提交下一行时抛出异常
+ *
+ * @param <R> 原始行类型
+ */
+@Slf4j
+public class ImportPipeline<R> implements AutoCloseable {
+
+    private static final long POLL_TIMEOUT_MILLIS = 200;
+    private static final int IN_FLIGHT_CHUNKS_PER_THREAD = 2;
+
+    private final InsertSqlBuilder insertSql;
+    private final int batchSize;
+    private final boolean preserveOrder;
+    private final ImportErrorHandler<R> errorHandler;
+    private final ImportProgress progress;
+
+    private final BlockingQueue<Chunk<R>> convertQueue;
+    private final BlockingQueue<Chunk<R>> writeQueue;
+    private final Semaphore inFlight;
+    private final ExecutorService converters;
+    private final ExecutorService writers;
+    private final int converterCount;
+    private final int writerCount;
+
+    private final AtomicLong insertedRows = new AtomicLong();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private final AtomicInteger runningConverters = new AtomicInteger();
+    private volatile boolean cancelled;
+    private volatile int commitInterval;
+    private volatile CommitListener commitListener;
+
+    private final AtomicLong nextSequence = new AtomicLong();
+    private final Feeder feeder = new Feeder();
+    private boolean finished;
+
+    /**
+     * @param insertSql      插入语句生成器，决定目标表和写入模式
+     * @param connections    写入连接，每个连接对应一个写入线程，连接的事务由调用方管理
+     * @param converterCount 转换线程数
+     * @param preserveOrder  是否按提交顺序写入，为true时只能传入一个连接
+     * @param errorHandler   转换或插入失败时的回调，会在多个线程中调用
+     * @param progress       读取和插入行数的计数及取消标记
+     */
+    public ImportPipeline(InsertSqlBuilder insertSql, int batchSize, List<Connection> connections, int converterCount,
+                          boolean preserveOrder, ImportErrorHandler<R> errorHandler, ImportProgress progress) {
+        if (preserveOrder && connections.size() != 1) {
+            throw new IllegalArgumentException("保序导入只能使用一个写入线程");
+        }
+        this.insertSql = insertSql;
+        this.batchSize = batchSize;
+        this.preserveOrder = preserveOrder;
+        this.errorHandler = errorHandler;
+        this.progress = progress;
+        this.converterCount = converterCount;
+        this.writerCount = connections.size();
+
+        int maxInFlight = (converterCount + writerCount) * IN_FLIGHT_CHUNKS_PER_THREAD;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.convertQueue = new ArrayBlockingQueue<>(maxInFlight + converterCount);
+        this.writeQueue = new ArrayBlockingQueue<>(maxInFlight + writerCount);
+
+        this.converters = Executors.newFixedThreadPool(converterCount, daemonThreadFactory("import-convert"));
+        this.writers = Executors.newFixedThreadPool(writerCount, daemonThreadFactory("import-write"));
+        runningConverters.set(converterCount);
+        for (int i = 0; i < converterCount; i++) {
+            converters.execute(this::runConverter);
+        }
+        for (Connection connection : connections) {
+            writers.execute(() -> runWriter(connection));
+        }
+    }
+
+    /**
+     * 开启分段提交，需在提交第一行之前调用
+     *
+     * @param commitInterval 每提交一次包含的记录数，按分块取整
+     * @param listener       每次提交后在写入线程中回调
+     */
+    public void enableCommit(int commitInterval, CommitListener listener) {
+        if (!preserveOrder) {
+            throw new IllegalStateException("分段提交要求保序写入");
+        }
+        this.commitListener = listener;
+        this.commitInterval = commitInterval;
+    }
+
+    /**
+     * 提交一行，列组合或转换器变化时先提交当前分块
+     */
+    public void submit(List<String> columns, RowConverter<R> converter, R record) {
+        submit(columns, converter, record, -1);
+    }
+
+    /**
+     * 提交一行并记录其在文件中的位置，分段提交时回调给检查点
+     */
+    public void submit(List<String> columns, RowConverter<R> converter, R record, long position) {
+        feeder.submit(columns, converter, record, position);
+    }
+
+    /**
+     * 为额外的读取线程创建读取端，各读取端独立攒分块，提交到同一流水线；
+     * 读取线程结束前需调用{@link Feeder#flush()}，全部读取端结束后再调用{@link #finish()}
+     */
+    public Feeder newFeeder() {
+        if (preserveOrder) {
+            throw new IllegalStateException("多个读取线程要求不保序写入");
+        }
+        return new Feeder();
+    }
+
+    /**
+     * 提交剩余数据并等待全部写入完成，任一阶段失败时抛出异常
+     *
+     * @return 成功插入的行数
+     */
+    public long finish() {
+        try {
+            feeder.flush();
+            for (int i = 0; i < converterCount; i++) {
+                put(convertQueue, Chunk.end());
+            }
+        } finally {
+            finished = true;
+            shutdownAndWait();
+        }
+        throwIfFailed();
+        return insertedRows.get();
+    }
+
+    /**
+     * 已成功插入的行数，可在导入过程中读取
+     */
+    public long getInsertedRows() {
+        return insertedRows.get();
+    }
+
+    /**
+     * 取消导入，各阶段尽快退出，未写入的数据被丢弃
+     */
+    public void cancel() {
+        cancelled = true;
+        failure.compareAndSet(null, new DbException("导入已取消"));
+    }
+
+    @Override
+    public void close() {
+        if (!finished) {
+            cancel();
+            shutdownAndWait();
+        }
+    }
+
+    private void dispatch(Chunk<R> chunk) {
+        throwIfFailed();
+        try {
+            while (!inFlight.tryAcquire(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                throwIfFailed();
+                progress.checkCancelled();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancel();
+            throw new DbException("导入被中断", e);
+        }
+        put(convertQueue, chunk);
+    }
+
+    private void runConverter() {
+        try {
+            Chunk<R> chunk;
+            while ((chunk = take(convertQueue)) != null && !chunk.isEnd()) {
+                chunk.values = new ArrayList<>(chunk.records.size());
+                for (R record : chunk.records) {
+                    try {
+                        chunk.values.add(chunk.converter.convert(record));
+                    } catch (Exception e) {
+                        errorHandler.onError(record, ImportErrorType.CONVERSION, e.getMessage());
+                        chunk.values.add(null);
+                    }
+                }
+                put(writeQueue, chunk);
+            }
+        } catch (RuntimeException e) {
+            fail(e);
+        } finally {
+            // 最后一个退出的转换线程通知所有写入线程结束
+            if (runningConverters.decrementAndGet() == 0) {
+                for (int i = 0; i < writerCount; i++) {
+                    offerQuietly(writeQueue, Chunk.end());
+                }
+            }
+        }
+    }
+
+    private void runWriter(Connection connection) {
+        Map<Long, Chunk<R>> pending = new HashMap<>();
+        long expectedSequence = 0;
+        PendingCommit uncommitted = new PendingCommit();
+        try (BatchInsertWriter<R> writer = new BatchInsertWriter<>(connection, insertSql, batchSize, errorHandler)) {
+            Chunk<R> chunk;
+            while ((chunk = take(writeQueue)) != null && !chunk.isEnd()) {
+                if (!preserveOrder) {
+                    write(writer, chunk);
+                    continue;
+                }
+                // 保序：先到的后续分块暂存，等待前面的分块转换完成
+                pending.put(chunk.sequence, chunk);
+                while ((chunk = pending.remove(expectedSequence)) != null) {
+                    uncommitted.add(chunk, write(writer, chunk));
+                    if (commitInterval > 0 && uncommitted.records >= commitInterval) {
+                        commit(connection, uncommitted);
+                    }
+                    expectedSequence++;
+                }
+            }
+            // 正常结束时提交剩余部分，取消或失败时由调用方回滚
+            if (chunk != null && commitInterval > 0 && uncommitted.records > 0) {
+                commit(connection, uncommitted);
+            }
+        } catch (SQLException | IOException | RuntimeException e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * 写入一个分块
+     *
+     * @return 分块中成功插入的行数
+     */
+    private long write(BatchInsertWriter<R> writer, Chunk<R> chunk) throws SQLException {
+        try {
+            long before = writer.getInsertedRows();
+            for (int i = 0; i < chunk.records.size(); i++) {
+                Object[] values = chunk.values.get(i);
+                if (values != null) {
+                    writer.add(chunk.columns, values, chunk.records.get(i));
+                }
+            }
+            writer.flush();
+            long inserted = writer.getInsertedRows() - before;
+            insertedRows.addAndGet(inserted);
+            progress.addImported(inserted);
+            return inserted;
+        } finally {
+            inFlight.release();
+        }
+    }
+
+    private void commit(Connection connection, PendingCommit uncommitted) throws SQLException, IOException {
+        connection.commit();
+        commitListener.committed(uncommitted.records, uncommitted.inserted, uncommitted.position);
+        uncommitted.records = 0;
+        uncommitted.inserted = 0;
+    }
+
+    private void fail(Throwable e) {
+        if (failure.compareAndSet(null, e)) {
+            log.error("导入流水线失败: table={}", insertSql.getTableName(), e);
+        }
+        cancelled = true;
+    }
+
+    private void throwIfFailed() {
+        Throwable error = failure.get();
+        if (error instanceof DbException) {
+            throw (DbException) error;
+        }
+        if (error != null) {
+            throw new DbException("导入失败: " + error.getMessage(), error);
+        }
+    }
+
+    private <T> void put(BlockingQueue<T> queue, T item) {
+        try {
+            while (!queue.offer(item, POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (cancelled) {
+                    throw new DbException("导入已取消");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DbException("导入被中断", e);
+        }
+    }
+
+    /**
+     * 取出下一个分块，取消后返回null
+     */
+    private <T> T take(BlockingQueue<T> queue) {
+        try {
+            T item;
+            while ((item = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) == null) {
+                if (cancelled) {
+                    return null;
+                }
+            }
+            return item;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private <T> void offerQuietly(BlockingQueue<T> queue, T item) {
+        try {
+            while (!cancelled && !queue.offer(item, POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                // 写入线程仍在消费，继续等待
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void shutdownAndWait() {
+        converters.shutdown();
+        writers.shutdown();
+        try {
+            while (!converters.awaitTermination(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)
+                    || !writers.awaitTermination(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                // 等待各阶段处理完剩余分块
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancel();
+            converters.shutdownNow();
+            writers.shutdownNow();
+        }
+    }
+
+    private static ThreadFactory daemonThreadFactory(String prefix) {
+        AtomicInteger index = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + index.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * 读取端，一个读取线程持有一个
+     */
+    public class Feeder {
+
+        private Chunk<R> current;
+
+        private Feeder() {
+        }
+
+        /**
+         * 提交一行，列组合或转换器变化时先提交当前分块
+         */
+        public void submit(List<String> columns, RowConverter<R> converter, R record) {
+            submit(columns, converter, record, -1);
+        }
+
+        void submit(List<String> columns, RowConverter<R> converter, R record, long position) {
+            progress.checkCancelled();
+            progress.addRead(1);
+            if (current != null && (current.columns != columns || current.converter != converter)) {
+                flush();
+            }
+            if (current == null) {
+                current = new Chunk<>(nextSequence.getAndIncrement(), columns, converter, batchSize);
+            }
+            current.records.add(record);
+            current.position = position;
+            if (current.records.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        /**
+         * 提交未满的分块
+         */
+        public void flush() {
+            if (current != null) {
+                Chunk<R> chunk = current;
+                current = null;
+                dispatch(chunk);
+            }
+        }
+    }
+
+    /**
+     * 行转换器，抛出异常表示该行数据不合法
+     */
+    @FunctionalInterface
+    public interface RowConverter<R> {
+        Object[] convert(R record) throws Exception;
+    }
+
+    /**
+     * 分段提交回调
+     */
+    @FunctionalInterface
+    public interface CommitListener {
+
+        /**
+         * @param records  本次提交包含的记录数（含失败行）
+         * @param inserted 本次提交成功插入的行数
+         * @param position 本次提交最后一条记录的位置
+         */
+        void committed(long records, long inserted, long position) throws IOException;
+    }
+
+    /**
+     * 写入线程中尚未提交的统计
+     */
+    private static class PendingCommit {
+        private long records;
+        private long inserted;
+        private long position = -1;
+
+        void add(Chunk<?> chunk, long insertedRows) {
+            records += chunk.records.size();
+            inserted += insertedRows;
+            position = chunk.position;
+        }
+    }
+
+    /**
+     * 流水线中传递的数据块
+     */
+    private static class Chunk<R> {
+        private final long sequence;
+        private final List<String> columns;
+        private final RowConverter<R> converter;
+        private final List<R> records;
+        private List<Object[]> values;
+        private long position = -1;
+
+        Chunk(long sequence, List<String> columns, RowConverter<R> converter, int capacity) {
+            this.sequence = sequence;
+            this.columns = columns;
+            this.converter = converter;
+            this.records = new ArrayList<>(capacity);
+        }
+
+        static <R> Chunk<R> end() {
+            return new Chunk<>(-1, null, null, 0);
+        }
+
+        boolean isEnd() {
+            return sequence < 0;
+        }
+    }
+}
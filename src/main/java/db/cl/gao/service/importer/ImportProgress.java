@@ -0,0 +1,84 @@
+package db.cl.gao.service.importer;
+
+import db.cl.gao.common.excep.DbException;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 导入进度与取消标记
+ * <p>
+ * 导入线程和写入线程更新计数，查询线程随时读取；取消是协作式的，读取线程在提交下一行或下一条语句时
+ * 检查标记并抛出异常，由导入按提交方式回滚或保留已提交的分段
+ */
+public class ImportProgress {
+
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong rowsImported = new AtomicLong();
+    private final AtomicLong rowsFailed = new AtomicLong();
+    private volatile boolean cancelled;
+    private volatile String checkpointId;
+    private volatile String errorReportId;
+
+    public void addRead(long rows) {
+        rowsRead.addAndGet(rows);
+    }
+
+    public void addImported(long rows) {
+        rowsImported.addAndGet(rows);
+    }
+
+    public void addFailed(long rows) {
+        rowsFailed.addAndGet(rows);
+    }
+
+    public long getRowsRead() {
+        return rowsRead.get();
+    }
+
+    public long getRowsImported() {
+        return rowsImported.get();
+    }
+
+    public long getRowsFailed() {
+        return rowsFailed.get();
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * 已取消时抛出异常，中断当前导入
+     */
+    public void checkCancelled() {
+        if (cancelled) {
+            throw new DbException("导入已取消");
+        }
+    }
+
+    /**
+     * 分段提交导入的检查点ID，导入失败或取消后可据此续传
+     */
+    public String getCheckpointId() {
+        return checkpointId;
+    }
+
+    public void setCheckpointId(String checkpointId) {
+        this.checkpointId = checkpointId;
+    }
+
+    /**
+     * 导入结束后的错误报告ID，分段提交的导入失败时也会保留
+     */
+    public String getErrorReportId() {
+        return errorReportId;
+    }
+
+    public void setErrorReportId(String errorReportId) {
+        this.errorReportId = errorReportId;
+    }
+}
@@ -0,0 +1,213 @@
+package db.cl.gao.service.importer;
+
+import db.cl.gao.common.enums.ColumnViolation;
+import db.cl.gao.common.param.ImportValidationResult;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * 导入预校验
+ * <p>
+ * 读取线程（调用方）把行按分块提交到ForkJoinPool，每个分块递归二分到阈值以下后逐行校验，
+ * 结果自底向上合并。在途分块数有上限，超出时读取线程按提交顺序等待最早的分块并合并结果，
+ * 错误样例因此始终按行号排列。只做校验，不访问数据库
+ */
+public class ImportValidator implements AutoCloseable {
+
+    private static final int CHUNK_SIZE = 8192;
+    private static final int SPLIT_THRESHOLD = 1024;
+
+    private final ColumnValidator[] validators;
+    private final int[] columnIndexes;
+    private final int maxSamples;
+    private final ForkJoinPool pool;
+    private final int maxInFlight;
+
+    private final Deque<ForkJoinTask<Tally>> inFlight = new ArrayDeque<>();
+    private final Tally total;
+    private List<List<String>> rows = new ArrayList<>(CHUNK_SIZE);
+    private List<Long> rowNumbers = new ArrayList<>(CHUNK_SIZE);
+
+    /**
+     * @param validators    各插入列的校验规则
+     * @param columnIndexes 与校验规则一一对应的文件列下标
+     * @param maxSamples    最多保留的错误样例数
+     */
+    public ImportValidator(ColumnValidator[] validators, int[] columnIndexes, int maxSamples, ForkJoinPool pool) {
+        this.validators = validators;
+        this.columnIndexes = columnIndexes;
+        this.maxSamples = maxSamples;
+        this.pool = pool;
+        this.maxInFlight = pool.getParallelism() * 2;
+        this.total = new Tally(validators.length);
+    }
+
+    /**
+     * 提交一行，读取器复用行列表时需传入副本
+     *
+     * @param rowNumber 表头后的数据行号，用于错误样例
+     */
+    public void submit(List<String> row, long rowNumber) {
+        rows.add(row);
+        rowNumbers.add(rowNumber);
+        if (rows.size() >= CHUNK_SIZE) {
+            dispatch();
+        }
+    }
+
+    /**
+     * 等待全部分块校验完成并填充结果
+     */
+    public void finish(ImportValidationResult result) {
+        if (!rows.isEmpty()) {
+            dispatch();
+        }
+        while (!inFlight.isEmpty()) {
+            total.merge(inFlight.poll().join(), maxSamples);
+        }
+
+        Map<String, Map<ColumnViolation, Long>> columnErrors = new LinkedHashMap<>();
+        for (int i = 0; i < validators.length; i++) {
+            Map<ColumnViolation, Long> counts = new EnumMap<>(ColumnViolation.class);
+            for (ColumnViolation violation : ColumnViolation.values()) {
+                long count = total.counts[i][violation.ordinal()];
+                if (count > 0) {
+                    counts.put(violation, count);
+                }
+            }
+            if (!counts.isEmpty()) {
+                columnErrors.put(validators[i].getColumnName(), counts);
+            }
+        }
+        result.setTotalRows(total.rows);
+        result.setErrorRows(total.errorRows);
+        result.setColumnErrors(columnErrors);
+        result.setErrorSamples(total.samples);
+    }
+
+    /**
+     * 读取失败时取消未完成的分块
+     */
+    @Override
+    public void close() {
+        for (ForkJoinTask<Tally> task : inFlight) {
+            task.cancel(false);
+        }
+        inFlight.clear();
+    }
+
+    private void dispatch() {
+        if (inFlight.size() >= maxInFlight) {
+            total.merge(inFlight.poll().join(), maxSamples);
+        }
+        inFlight.add(pool.submit(new ValidateTask(rows, rowNumbers, 0, rows.size())));
+        rows = new ArrayList<>(CHUNK_SIZE);
+        rowNumbers = new ArrayList<>(CHUNK_SIZE);
+    }
+
+    /**
+     * 校验分块中[from, to)范围内的行，超过阈值时二分并行
+     */
+    private class ValidateTask extends RecursiveTask<Tally> {
+
+        private final List<List<String>> chunkRows;
+        private final List<Long> chunkRowNumbers;
+        private final int from;
+        private final int to;
+
+        ValidateTask(List<List<String>> chunkRows, List<Long> chunkRowNumbers, int from, int to) {
+            this.chunkRows = chunkRows;
+            this.chunkRowNumbers = chunkRowNumbers;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Tally compute() {
+            if (to - from > SPLIT_THRESHOLD) {
+                int middle = (from + to) >>> 1;
+                ValidateTask left = new ValidateTask(chunkRows, chunkRowNumbers, from, middle);
+                ValidateTask right = new ValidateTask(chunkRows, chunkRowNumbers, middle, to);
+                right.fork();
+                Tally leftTally = left.compute();
+                return leftTally.merge(right.join(), maxSamples);
+            }
+
+            Tally tally = new Tally(validators.length);
+            for (int r = from; r < to; r++) {
+                List<String> row = chunkRows.get(r);
+                boolean rowFailed = false;
+                for (int i = 0; i < validators.length; i++) {
+                    int index = columnIndexes[i];
+                    String value = index < row.size() ? row.get(index) : null;
+                    ColumnViolation violation = validators[i].check(value);
+                    if (violation == null) {
+                        continue;
+                    }
+                    rowFailed = true;
+                    tally.counts[i][violation.ordinal()]++;
+                    if (tally.samples.size() < maxSamples) {
+                        tally.samples.add(createSample(chunkRowNumbers.get(r), validators[i], value, violation));
+                    }
+                }
+                tally.rows++;
+                if (rowFailed) {
+                    tally.errorRows++;
+                }
+            }
+            return tally;
+        }
+    }
+
+    private static Map<String, Object> createSample(long rowNumber, ColumnValidator validator, String value,
+                                                    ColumnViolation violation) {
+        Map<String, Object> sample = new HashMap<>();
+        sample.put("row", rowNumber);
+        sample.put("column", validator.getColumnName());
+        sample.put("value", value);
+        sample.put("error", violation);
+        sample.put("columnType", validator.getColumnType());
+        return sample;
+    }
+
+    /**
+     * 校验统计，合并时左侧在前，样例保持行号顺序
+     */
+    private static class Tally {
+        private long rows;
+        private long errorRows;
+        private final long[][] counts;
+        private final List<Map<String, Object>> samples = new ArrayList<>();
+
+        Tally(int columnCount) {
+            this.counts = new long[columnCount][ColumnViolation.values().length];
+        }
+
+        Tally merge(Tally other, int maxSamples) {
+            rows += other.rows;
+            errorRows += other.errorRows;
+            for (int i = 0; i < counts.length; i++) {
+                for (int j = 0; j < counts[i].length; j++) {
+                    counts[i][j] += other.counts[i][j];
+                }
+            }
+            for (Map<String, Object> sample : other.samples) {
+                if (samples.size() >= maxSamples) {
+                    break;
+                }
+                samples.add(sample);
+            }
+            return this;
+        }
+    }
+}
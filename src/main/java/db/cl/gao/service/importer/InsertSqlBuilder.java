@@ -0,0 +1,71 @@
+package db.cl.gao.service.importer;
+
+import db.cl.gao.common.enums.ImportMode;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 按导入模式生成带占位符的INSERT语句
+ * <p>
+ * UPSERT生成INSERT ... ON DUPLICATE KEY UPDATE，IGNORE生成INSERT IGNORE，两者都可被驱动的
+ * rewriteBatchedStatements改写为多行语句，键冲突不再逐行抛出异常。
+ * 列名由调用方按表结构校验，这里不做转义
+ */
+public class InsertSqlBuilder {
+
+    private final String tableName;
+    private final ImportMode mode;
+    private final List<String> keyColumns;
+    private final List<String> updateColumns;
+
+    /**
+     * @param keyColumns    UPSERT时不更新的键列
+     * @param updateColumns UPSERT时更新的列，为null时更新除键列外的所有插入列
+     */
+    public InsertSqlBuilder(String tableName, ImportMode mode, List<String> keyColumns, List<String> updateColumns) {
+        this.tableName = tableName;
+        this.mode = mode;
+        this.keyColumns = keyColumns;
+        this.updateColumns = updateColumns;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    /**
+     * 生成指定列组合的语句，参数与columns按位置对应
+     */
+    public String build(List<String> columns) {
+        StringBuilder sql = new StringBuilder(mode == ImportMode.IGNORE ? "INSERT IGNORE INTO " : "INSERT INTO ")
+                .append(tableName)
+                .append(" (").append(String.join(", ", columns)).append(") VALUES (")
+                .append(columns.stream().map(column -> "?").collect(Collectors.joining(", ")))
+                .append(")");
+        if (mode == ImportMode.UPSERT) {
+            sql.append(" ON DUPLICATE KEY UPDATE ").append(buildUpdateList(columns));
+        }
+        return sql.toString();
+    }
+
+    /**
+     * 只更新本次插入的列；没有可更新的列时用第一列赋值为自身，冲突行保持不变
+     */
+    private String buildUpdateList(List<String> columns) {
+        List<String> updates = columns.stream()
+                .filter(column -> updateColumns != null
+                        ? containsIgnoreCase(updateColumns, column)
+                        : !containsIgnoreCase(keyColumns, column))
+                .map(column -> column + " = VALUES(" + column + ")")
+                .collect(Collectors.toList());
+        if (updates.isEmpty()) {
+            return columns.get(0) + " = " + columns.get(0);
+        }
+        return String.join(", ", updates);
+    }
+
+    private static boolean containsIgnoreCase(List<String> list, String value) {
+        return list.stream().anyMatch(value::equalsIgnoreCase);
+    }
+}
@@ -0,0 +1,159 @@
+package db.cl.gao.service.importer;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import db.cl.gao.common.excep.DbException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JSON对象流式读取
+ * <p>
+ * 按token逐个解析，同时支持对象数组和NDJSON（每行一个对象），一次只保存一个对象。
+ * 第一个对象的字段名作为表头，后续对象按字段名对应到表头位置，缺少的字段为null，多出的字段忽略。
+ * 标量取原始文本，嵌套的对象或数组按JSON文本写入
+ */
+public class JsonRecordReader implements Closeable {
+
+    private final JsonParser parser;
+    private final List<String> headers = new ArrayList<>();
+    private final Map<String, Integer> headerIndexes = new HashMap<>();
+    private boolean array;
+    private boolean started;
+    private long recordNumber;
+
+    /**
+     * @param parser 需带ObjectCodec，用于读取嵌套值
+     */
+    public JsonRecordReader(JsonParser parser) {
+        this.parser = parser;
+    }
+
+    /**
+     * 读取第一个对象确定表头，需在{@link #next()}之前调用
+     *
+     * @return 第一个对象的值，按表头排列；没有对象时返回null
+     */
+    public List<String> readHeaders() throws IOException {
+        start();
+        if (!nextObject()) {
+            return null;
+        }
+        List<String> values = new ArrayList<>();
+        JsonToken token;
+        while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            parser.nextToken();
+            String value = readValue();
+            Integer index = headerIndexes.get(name);
+            if (index == null) {
+                headerIndexes.put(name, headers.size());
+                headers.add(name);
+                values.add(value);
+            } else {
+                values.set(index, value);
+            }
+        }
+        expectEndObject(token);
+        return values;
+    }
+
+    /**
+     * 表头，{@link #readHeaders()}之后可用
+     */
+    public List<String> getHeaders() {
+        return Collections.unmodifiableList(headers);
+    }
+
+    /**
+     * 读取下一个对象
+     *
+     * @return 按表头排列的值，读完时返回null
+     */
+    public List<String> next() throws IOException {
+        if (!nextObject()) {
+            return null;
+        }
+        String[] values = new String[headers.size()];
+        JsonToken token;
+        while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+            Integer index = headerIndexes.get(parser.getCurrentName());
+            parser.nextToken();
+            if (index != null) {
+                values[index] = readValue();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        expectEndObject(token);
+        return Arrays.asList(values);
+    }
+
+    /**
+     * 最近读取的对象序号，从1开始
+     */
+    public long getRecordNumber() {
+        return recordNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+
+    /**
+     * 第一个token为[时按数组读取，否则按顶层对象序列读取
+     */
+    private void start() throws IOException {
+        if (started) {
+            return;
+        }
+        started = true;
+        JsonToken token = parser.nextToken();
+        if (token == JsonToken.START_ARRAY) {
+            array = true;
+        } else if (token != null && token != JsonToken.START_OBJECT) {
+            throw new DbException("JSON文件必须是对象数组或每行一个对象");
+        }
+    }
+
+    /**
+     * 定位到下一个对象的开始，数组或文件结束时返回false
+     */
+    private boolean nextObject() throws IOException {
+        JsonToken token = recordNumber == 0 && !array ? parser.currentToken() : parser.nextToken();
+        if (token == null || (array && token == JsonToken.END_ARRAY)) {
+            return false;
+        }
+        if (token != JsonToken.START_OBJECT) {
+            throw new DbException(String.format("第%d个JSON值不是对象", recordNumber + 1));
+        }
+        recordNumber++;
+        return true;
+    }
+
+    private String readValue() throws IOException {
+        switch (parser.currentToken()) {
+            case VALUE_NULL:
+                return null;
+            case START_OBJECT:
+            case START_ARRAY:
+                return parser.readValueAsTree().toString();
+            default:
+                return parser.getText();
+        }
+    }
+
+    private void expectEndObject(JsonToken token) {
+        if (token != JsonToken.END_OBJECT) {
+            throw new DbException(String.format("第%d个JSON对象格式不正确", recordNumber));
+        }
+    }
+}
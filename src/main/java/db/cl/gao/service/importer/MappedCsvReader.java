@@ -0,0 +1,291 @@
+package db.cl.gao.service.importer;
+
+import db.cl.gao.common.excep.DbException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 内存映射的并行CSV读取
+ * <p>
+ * 第一条记录为表头。数据部分按字节切分为多个区段，切分点对齐到引号外的换行，各区段在独立线程中
+ * 内存映射后解析。切分点所在的引号状态由各段引号数的奇偶并行统计后前缀累加得到，不需要顺序扫描整个文件；
+ * 要求文件为UTF-8编码的RFC 4180格式，即引号只出现在带引号的字段中并以两个引号转义
+ */
+@Slf4j
+public class MappedCsvReader implements Closeable {
+
+    private static final CSVFormat RANGE_FORMAT = CSVFormat.DEFAULT;
+    private static final long MIN_RANGE_BYTES = 1024L * 1024;
+    private static final int SCAN_BUFFER_SIZE = 64 * 1024;
+    private static final long POLL_TIMEOUT_MILLIS = 200;
+
+    private final long minRangeBytes;
+    private final long windowSize;
+    private final FileChannel channel;
+    private final long size;
+    private final long dataStart;
+    private final List<String> headers;
+
+    public MappedCsvReader(Path file) throws IOException {
+        this(file, MIN_RANGE_BYTES, MappedRangeInputStream.WINDOW_SIZE);
+    }
+
+    /**
+     * @param minRangeBytes 每个区段的最小字节数
+     * @param windowSize    内存映射窗口大小，测试中用小值覆盖切分点和窗口边界落在引号、转义和CRLF中间的情况
+     */
+    MappedCsvReader(Path file, long minRangeBytes, long windowSize) throws IOException {
+        this.minRangeBytes = minRangeBytes;
+        this.windowSize = windowSize;
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            this.size = channel.size();
+            long headerStart = hasBom() ? 3 : 0;
+            this.dataStart = findRecordEnd(headerStart, false);
+            this.headers = readHeaders(headerStart, dataStart);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 表头，文件为空时返回空列表
+     */
+    public List<String> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * 切分数据区段并行解析，每个区段在一个解析线程中交给handler；只有一个区段时在调用方线程中解析。
+     * 任一区段失败时中断其余解析线程并抛出异常
+     *
+     * @param parallelism 最多的解析线程数
+     */
+    public void read(int parallelism, RangeHandler handler) throws IOException {
+        if (parallelism <= 1 || size - dataStart < minRangeBytes * 2) {
+            parseRange(dataStart, size, handler);
+            return;
+        }
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "import-parse-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        CompletionService<Void> completion = new ExecutorCompletionService<>(executor);
+        List<Future<Void>> futures = new ArrayList<>();
+        try {
+            List<long[]> ranges = split(parallelism, executor);
+            log.info("CSV文件切分为{}个区段并行解析，数据大小{}字节", ranges.size(), size - dataStart);
+            for (long[] range : ranges) {
+                futures.add(completion.submit(() -> {
+                    parseRange(range[0], range[1], handler);
+                    return null;
+                }));
+            }
+            // 按完成顺序检查，任一区段失败时立即结束
+            for (int i = 0; i < futures.size(); i++) {
+                await(takeCompleted(completion));
+            }
+        } finally {
+            for (Future<Void> future : futures) {
+                future.cancel(true);
+            }
+            executor.shutdownNow();
+            awaitTermination(executor);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * 按数据大小均分后，把每个切分点后移到引号外的下一个换行之后
+     *
+     * @return 按文件顺序排列的[start, end)区段
+     */
+    private List<long[]> split(int parallelism, ExecutorService executor) throws IOException {
+        long length = size - dataStart;
+        int parts = (int) Math.min(parallelism, length / minRangeBytes);
+        long[] bounds = new long[parts + 1];
+        for (int i = 0; i <= parts; i++) {
+            bounds[i] = dataStart + length * i / parts;
+        }
+
+        List<Future<Boolean>> oddQuotes = new ArrayList<>(parts);
+        for (int i = 0; i < parts; i++) {
+            long from = bounds[i];
+            long to = bounds[i + 1];
+            oddQuotes.add(executor.submit(() -> countQuotes(from, to) % 2 == 1));
+        }
+
+        List<long[]> ranges = new ArrayList<>(parts);
+        long start = dataStart;
+        boolean inQuotes = false;
+        for (int i = 1; i < parts; i++) {
+            inQuotes ^= await(oddQuotes.get(i - 1));
+            // 上一个切分点后移时可能越过本切分点
+            if (bounds[i] < start) {
+                continue;
+            }
+            long end = findRecordEnd(bounds[i], inQuotes);
+            if (end > start) {
+                ranges.add(new long[]{start, end});
+                start = end;
+            }
+        }
+        if (start < size) {
+            ranges.add(new long[]{start, size});
+        }
+        return ranges;
+    }
+
+    private void parseRange(long start, long end, RangeHandler handler) throws IOException {
+        try (Reader reader = new InputStreamReader(openRange(start, end), StandardCharsets.UTF_8);
+             CSVParser parser = new CSVParser(reader, RANGE_FORMAT)) {
+            handler.handle(parser);
+        }
+    }
+
+    private List<String> readHeaders(long start, long end) throws IOException {
+        try (Reader reader = new InputStreamReader(openRange(start, end), StandardCharsets.UTF_8);
+             CSVParser parser = new CSVParser(reader, RANGE_FORMAT)) {
+            Iterator<CSVRecord> records = parser.iterator();
+            return records.hasNext() ? records.next().toList() : Collections.emptyList();
+        }
+    }
+
+    private InputStream openRange(long start, long end) {
+        return new MappedRangeInputStream(channel, start, end, windowSize);
+    }
+
+    private boolean hasBom() throws IOException {
+        if (size < 3) {
+            return false;
+        }
+        byte[] head = new byte[3];
+        try (InputStream inputStream = openRange(0, 3)) {
+            int read = 0;
+            while (read < head.length) {
+                read += inputStream.read(head, read, head.length - read);
+            }
+        }
+        return (head[0] & 0xFF) == 0xEF && (head[1] & 0xFF) == 0xBB && (head[2] & 0xFF) == 0xBF;
+    }
+
+    /**
+     * 统计[from, to)范围内的引号数；UTF-8多字节字符不含ASCII字节，可直接按字节扫描
+     */
+    private long countQuotes(long from, long to) throws IOException {
+        long count = 0;
+        byte[] buffer = new byte[SCAN_BUFFER_SIZE];
+        try (InputStream inputStream = openRange(from, to)) {
+            int read;
+            while ((read = inputStream.read(buffer, 0, buffer.length)) > 0) {
+                for (int i = 0; i < read; i++) {
+                    if (buffer[i] == '"') {
+                        count++;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 从from开始查找引号外的第一个换行，返回其后的位置；没有时返回文件末尾
+     *
+     * @param inQuotes from处是否位于引号内
+     */
+    private long findRecordEnd(long from, boolean inQuotes) throws IOException {
+        byte[] buffer = new byte[SCAN_BUFFER_SIZE];
+        long position = from;
+        try (InputStream inputStream = openRange(from, size)) {
+            int read;
+            while ((read = inputStream.read(buffer, 0, buffer.length)) > 0) {
+                for (int i = 0; i < read; i++) {
+                    if (buffer[i] == '"') {
+                        inQuotes = !inQuotes;
+                    } else if (buffer[i] == '\n' && !inQuotes) {
+                        return position + i + 1;
+                    }
+                }
+                position += read;
+            }
+        }
+        return size;
+    }
+
+    private static <T> T await(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DbException("CSV解析被中断", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new DbException("CSV解析失败: " + cause.getMessage(), cause);
+        }
+    }
+
+    private static <T> Future<T> takeCompleted(CompletionService<T> completion) {
+        try {
+            return completion.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DbException("CSV解析被中断", e);
+        }
+    }
+
+    private static void awaitTermination(ExecutorService executor) {
+        try {
+            while (!executor.awaitTermination(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                // 等待被中断的解析线程退出
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 区段处理，在解析线程中调用
+     */
+    @FunctionalInterface
+    public interface RangeHandler {
+        void handle(Iterable<CSVRecord> records) throws IOException;
+    }
+}
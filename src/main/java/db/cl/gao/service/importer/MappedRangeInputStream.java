@@ -0,0 +1,79 @@
+package db.cl.gao.service.importer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * 文件区段的内存映射输入流
+ * <p>
+ * 按窗口依次映射区段，单个MappedByteBuffer有2GB上限，窗口化后区段大小不受限制；
+ * 读取不经过内核缓冲区拷贝，映射在缓冲区被回收时释放。读取线程被中断时抛出InterruptedIOException
+ */
+public class MappedRangeInputStream extends InputStream {
+
+    static final long WINDOW_SIZE = 64L * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final long end;
+    private final long windowSize;
+    private long position;
+    private MappedByteBuffer window;
+
+    /**
+     * 读取[start, end)范围内的字节，不关闭channel
+     */
+    public MappedRangeInputStream(FileChannel channel, long start, long end) {
+        this(channel, start, end, WINDOW_SIZE);
+    }
+
+    /**
+     * @param windowSize 每次映射的字节数，测试中用小窗口覆盖跨窗口边界的情况
+     */
+    MappedRangeInputStream(FileChannel channel, long start, long end, long windowSize) {
+        this.channel = channel;
+        this.position = start;
+        this.end = end;
+        this.windowSize = windowSize;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] single = new byte[1];
+        return read(single, 0, 1) < 0 ? -1 : single[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedIOException("读取被中断");
+        }
+        if (length == 0) {
+            return 0;
+        }
+        if ((window == null || !window.hasRemaining()) && !nextWindow()) {
+            return -1;
+        }
+        int count = Math.min(length, window.remaining());
+        window.get(buffer, offset, count);
+        return count;
+    }
+
+    @Override
+    public int available() {
+        long remaining = (window != null ? window.remaining() : 0) + end - position;
+        return (int) Math.min(remaining, Integer.MAX_VALUE);
+    }
+
+    private boolean nextWindow() throws IOException {
+        if (position >= end) {
+            return false;
+        }
+        long size = Math.min(windowSize, end - position);
+        window = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+        position += size;
+        return true;
+    }
+}
@@ -0,0 +1,202 @@
+package db.cl.gao.service.importer;
+
+import db.cl.gao.common.enums.ImportErrorType;
+import db.cl.gao.common.excep.DbException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * SQL脚本执行器
+ * <p>
+ * 连续的、目标表相同的INSERT/REPLACE语句通过Statement.addBatch累积，满batchSize或遇到其他语句时
+ * 执行一次executeBatch，驱动开启rewriteBatchedStatements时整批一次发送；其他语句逐条执行。
+ * 单条语句失败只记录错误，不中断脚本。连接及事务由调用方管理，批次在保存点内执行，
+ * 失败时回滚到保存点后逐条重新执行
+ */
+@Slf4j
+public class SqlScriptExecutor implements AutoCloseable {
+
+    private static final Pattern INSERT_PATTERN = Pattern.compile(
+            "(?:INSERT|REPLACE)\\s+(?:(?:LOW_PRIORITY|DELAYED|HIGH_PRIORITY|IGNORE)\\s+)*(?:INTO\\s+)?([`\"\\w.$]+)",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern QUOTE_PATTERN = Pattern.compile("[`\"]");
+
+    private final Connection connection;
+    private final Statement statement;
+    private final int batchSize;
+    private final Predicate<String> unsafe;
+    private final ImportErrorHandler<String> errorHandler;
+
+    private final List<String> batch = new ArrayList<>();
+    private String batchTable;
+    private long successCount;
+
+    /**
+     * @param unsafe       非INSERT语句执行前的安全检查，返回true时拒绝执行
+     * @param errorHandler 语句失败时的回调，参数为语句、错误类别和错误信息
+     */
+    public SqlScriptExecutor(Connection connection, int batchSize, Predicate<String> unsafe,
+                             ImportErrorHandler<String> errorHandler) throws SQLException {
+        this.connection = connection;
+        this.statement = connection.createStatement();
+        this.batchSize = batchSize;
+        this.unsafe = unsafe;
+        this.errorHandler = errorHandler;
+    }
+
+    /**
+     * 执行一条语句，INSERT可能延迟到批次满或{@link #flush()}时执行
+     */
+    public void execute(String sql) throws SQLException {
+        String table = insertTarget(sql);
+        if (table == null || !table.equals(batchTable)) {
+            flush();
+        }
+        if (table == null) {
+            if (unsafe.test(sql)) {
+                errorHandler.onError(sql, ImportErrorType.UNSAFE_SQL, "不安全的SQL语句");
+            } else {
+                executeSingle(sql);
+            }
+            return;
+        }
+
+        batchTable = table;
+        statement.addBatch(sql);
+        batch.add(sql);
+        if (batch.size() >= batchSize) {
+            flush();
+        }
+    }
+
+    /**
+     * 执行累积的INSERT批次；连接处于自动提交时本批临时在一个事务中执行
+     */
+    public void flush() throws SQLException {
+        if (batch.isEmpty()) {
+            batchTable = null;
+            return;
+        }
+        // 脚本中的SET autocommit会改变连接状态，每批重新读取
+        boolean autoCommit = connection.getAutoCommit();
+        try {
+            if (autoCommit) {
+                connection.setAutoCommit(false);
+            }
+            executeBatch();
+            if (autoCommit) {
+                connection.commit();
+            }
+        } catch (SQLException | RuntimeException e) {
+            if (autoCommit) {
+                rollbackQuietly();
+            }
+            if (e instanceof RuntimeException) {
+                throw (RuntimeException) e;
+            }
+            throw new DbException("批量执行SQL失败: " + e.getMessage(), e);
+        } finally {
+            statement.clearBatch();
+            batch.clear();
+            batchTable = null;
+            if (autoCommit) {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * 已成功执行的语句数
+     */
+    public long getSuccessCount() {
+        return successCount;
+    }
+
+    @Override
+    public void close() {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            log.warn("关闭SQL语句失败", e);
+        }
+    }
+
+    /**
+     * 在保存点内执行批次。多条语句打包发送时服务端在第一条失败语句处停止，驱动把同一包内
+     * 未执行的语句也标为失败，更新计数无法定位失败的语句，因此回滚到保存点后逐条重新执行
+     */
+    private void executeBatch() throws SQLException {
+        Savepoint savepoint = connection.setSavepoint();
+        try {
+            statement.executeBatch();
+            successCount += batch.size();
+        } catch (BatchUpdateException e) {
+            connection.rollback(savepoint);
+            statement.clearBatch();
+            for (String sql : batch) {
+                executeInSavepoint(sql);
+            }
+        }
+        connection.releaseSavepoint(savepoint);
+    }
+
+    /**
+     * 单条语句在保存点内执行，失败时回滚该语句，不影响事务中的其他语句
+     */
+    private void executeInSavepoint(String sql) throws SQLException {
+        Savepoint savepoint = connection.setSavepoint();
+        try {
+            statement.execute(sql);
+            successCount++;
+        } catch (SQLException e) {
+            connection.rollback(savepoint);
+            log.debug("执行SQL失败: {}", abbreviate(sql), e);
+            errorHandler.onError(sql, ImportErrorType.of(e), e.getMessage());
+        }
+        connection.releaseSavepoint(savepoint);
+    }
+
+    private void rollbackQuietly() {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            log.warn("回滚SQL批次失败", e);
+        }
+    }
+
+    private void executeSingle(String sql) {
+        try {
+            statement.execute(sql);
+            successCount++;
+        } catch (SQLException e) {
+            log.debug("执行SQL失败: {}", abbreviate(sql), e);
+            errorHandler.onError(sql, ImportErrorType.of(e), e.getMessage());
+        }
+    }
+
+    /**
+     * INSERT/REPLACE语句的目标表（去掉引号、转为小写），其他语句返回null
+     */
+    private static String insertTarget(String sql) {
+        Matcher matcher = INSERT_PATTERN.matcher(sql);
+        if (!matcher.lookingAt()) {
+            return null;
+        }
+        return QUOTE_PATTERN.matcher(matcher.group(1)).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    private static String abbreviate(String sql) {
+        return sql.length() <= 200 ? sql : sql.substring(0, 200) + "...";
+    }
+}
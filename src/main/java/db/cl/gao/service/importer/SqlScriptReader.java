@@ -0,0 +1,257 @@
+package db.cl.gao.service.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * SQL脚本流式分割
+ * <p>
+ * 按字符扫描输入流，识别单引号、双引号、反引号中的内容以及--、#、块注释，只在引号和注释之外
+ * 按当前分隔符切分语句，支持mysql客户端的DELIMITER命令。普通注释被丢弃，
+ * 版本注释和优化器提示保留在语句中。一次只缓存一条语句，内存占用与脚本大小无关
+ */
+public class SqlScriptReader implements Closeable {
+
+    private static final String DEFAULT_DELIMITER = ";";
+    private static final String DELIMITER_COMMAND = "DELIMITER";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private final StringBuilder statement = new StringBuilder();
+    private int position;
+    private int limit;
+
+    private String delimiter = DEFAULT_DELIMITER;
+    private long lineNumber = 1;
+    private long statementLine;
+
+    public SqlScriptReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * 读取下一条语句，不含分隔符
+     *
+     * @return 去除首尾空白的语句，读完时返回null
+     */
+    public String next() throws IOException {
+        statement.setLength(0);
+        while (true) {
+            int c = peek(0);
+            if (c < 0) {
+                return takeStatement();
+            }
+            // 开头的空白不会进入statement，长度为0即位于语句开头
+            if (statement.length() == 0 && isDelimiterCommand()) {
+                readDelimiterCommand();
+                continue;
+            }
+            if (matches(delimiter)) {
+                skip(delimiter.length());
+                String sql = takeStatement();
+                if (sql != null) {
+                    return sql;
+                }
+                continue;
+            }
+
+            switch (c) {
+                case '\'':
+                case '"':
+                case '`':
+                    copyQuoted((char) c);
+                    break;
+                case '-':
+                    if (peek(1) == '-' && isCommentSpace(peek(2))) {
+                        skipLine();
+                    } else {
+                        append(read());
+                    }
+                    break;
+                case '#':
+                    skipLine();
+                    break;
+                case '/':
+                    if (peek(1) == '*') {
+                        copyOrSkipBlockComment();
+                    } else {
+                        append(read());
+                    }
+                    break;
+                default:
+                    append(read());
+            }
+        }
+    }
+
+    /**
+     * 最近一条语句在脚本中的起始行号
+     */
+    public long getStatementLine() {
+        return statementLine;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private String takeStatement() {
+        String sql = statement.toString().trim();
+        statement.setLength(0);
+        return sql.isEmpty() ? null : sql;
+    }
+
+    private void append(char c) {
+        if (statement.length() == 0 && Character.isWhitespace(c)) {
+            return;
+        }
+        if (statement.length() == 0) {
+            statementLine = lineNumber;
+        }
+        statement.append(c);
+    }
+
+    /**
+     * 引号内原样复制，反斜杠转义下一个字符（反引号除外），连续两个引号由下一轮扫描继续处理
+     */
+    private void copyQuoted(char quote) throws IOException {
+        append(read());
+        int c;
+        while ((c = peek(0)) >= 0) {
+            append(read());
+            if (c == quote) {
+                return;
+            }
+            if (c == '\\' && quote != '`' && peek(0) >= 0) {
+                append(read());
+            }
+        }
+    }
+
+    /**
+     * 版本注释和优化器提示会被服务端执行，保留；普通块注释丢弃
+     */
+    private void copyOrSkipBlockComment() throws IOException {
+        boolean keep = peek(2) == '!' || peek(2) == '+';
+        if (keep) {
+            append(read());
+            append(read());
+        } else {
+            skip(2);
+        }
+        int c;
+        while ((c = peek(0)) >= 0) {
+            if (c == '*' && peek(1) == '/') {
+                if (keep) {
+                    append(read());
+                    append(read());
+                } else {
+                    skip(2);
+                    append(' ');
+                }
+                return;
+            }
+            char next = read();
+            if (keep) {
+                append(next);
+            }
+        }
+    }
+
+    private void skipLine() throws IOException {
+        int c;
+        while ((c = peek(0)) >= 0 && c != '\n') {
+            read();
+        }
+        if (c == '\n') {
+            append(read());
+        }
+    }
+
+    private boolean isDelimiterCommand() throws IOException {
+        if (!matches(DELIMITER_COMMAND)) {
+            return false;
+        }
+        int next = peek(DELIMITER_COMMAND.length());
+        return next == ' ' || next == '\t';
+    }
+
+    private void readDelimiterCommand() throws IOException {
+        skip(DELIMITER_COMMAND.length());
+        StringBuilder line = new StringBuilder();
+        int c;
+        while ((c = peek(0)) >= 0 && c != '\n') {
+            line.append(read());
+        }
+        String value = line.toString().trim();
+        int end = 0;
+        while (end < value.length() && !Character.isWhitespace(value.charAt(end))) {
+            end++;
+        }
+        if (end > 0) {
+            delimiter = value.substring(0, end);
+        }
+        statement.setLength(0);
+    }
+
+    /**
+     * 当前位置是否为指定文本，DELIMITER命令不区分大小写
+     */
+    private boolean matches(String text) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            int c = peek(i);
+            if (c < 0 || Character.toUpperCase((char) c) != Character.toUpperCase(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isCommentSpace(int c) {
+        return c < 0 || c == ' ' || c == '\t' || c == '\r' || c == '\n';
+    }
+
+    private int peek(int offset) throws IOException {
+        if (position + offset >= limit && !fill(offset + 1)) {
+            return -1;
+        }
+        return buffer[position + offset];
+    }
+
+    private char read() throws IOException {
+        peek(0);
+        char c = buffer[position++];
+        if (c == '\n') {
+            lineNumber++;
+        }
+        return c;
+    }
+
+    private void skip(int count) throws IOException {
+        for (int i = 0; i < count; i++) {
+            read();
+        }
+    }
+
+    /**
+     * 保证缓冲区中至少有count个未读字符，文件结束时返回false
+     */
+    private boolean fill(int count) throws IOException {
+        if (position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            limit -= position;
+            position = 0;
+        }
+        while (limit < count) {
+            int read = reader.read(buffer, limit, buffer.length - limit);
+            if (read < 0) {
+                return false;
+            }
+            limit += read;
+        }
+        return true;
+    }
+}
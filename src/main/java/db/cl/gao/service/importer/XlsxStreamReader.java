@@ -0,0 +1,152 @@
+package db.cl.gao.service.importer;
+
+import db.cl.gao.common.excep.DbException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.ss.util.NumberToTextConverter;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.SQLException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * XLSX流式读取
+ * <p>
+ * 基于POI事件模型（SAX）逐行解析第一个工作表，共享字符串表只读加载，不构建工作簿DOM，
+ * 内存占用与单行大小相关。单元格值的格式与用户模型导入保持一致：日期为yyyy-MM-dd HH:mm:ss，
+ * 公式取缓存的计算结果
+ */
+public class XlsxStreamReader {
+
+    private XlsxStreamReader() {
+    }
+
+    /**
+     * 逐行回调，values按列位置排列，缺失的单元格为空字符串
+     */
+    @FunctionalInterface
+    public interface RowHandler {
+        void handle(int rowIndex, List<String> values) throws SQLException;
+    }
+
+    /**
+     * 读取xlsx文件第一个工作表的所有行
+     */
+    public static void read(File file, RowHandler handler) throws IOException, SQLException {
+        try (OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ)) {
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg, false);
+            XSSFReader reader = new XSSFReader(pkg);
+            StylesTable styles = reader.getStylesTable();
+
+            Iterator<InputStream> sheets = reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                throw new DbException("Excel文件为空");
+            }
+
+            try (InputStream sheet = sheets.next()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new XSSFSheetXMLHandler(styles, null, strings,
+                        new RowCollector(handler), new ImportDataFormatter(), false));
+                parser.parse(new InputSource(sheet));
+            }
+        } catch (HandlerException e) {
+            throw e.getCause();
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new DbException("Excel解析失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 将单元格事件组装为整行
+     */
+    private static class RowCollector implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final RowHandler handler;
+        private final List<String> values = new ArrayList<>();
+        private int nextColumn;
+
+        RowCollector(RowHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            values.clear();
+            nextColumn = 0;
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            try {
+                handler.handle(rowNum, values);
+            } catch (SQLException e) {
+                throw new HandlerException(e);
+            }
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = cellReference != null ? new CellReference(cellReference).getCol() : nextColumn;
+            while (values.size() < column) {
+                values.add("");
+            }
+            String value = formattedValue != null ? formattedValue.trim() : "";
+            if (column < values.size()) {
+                values.set(column, value);
+            } else {
+                values.add(value);
+            }
+            nextColumn = column + 1;
+        }
+    }
+
+    /**
+     * 数值按原值输出，日期统一格式，不套用单元格的显示格式
+     */
+    private static class ImportDataFormatter extends DataFormatter {
+
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString,
+                                            boolean use1904Windowing) {
+            if (DateUtil.isADateFormat(formatIndex, formatString) && DateUtil.isValidExcelDate(value)) {
+                return new SimpleDateFormat("yyyy-MM-dd HH:mm:ss")
+                        .format(DateUtil.getJavaDate(value, use1904Windowing));
+            }
+            return NumberToTextConverter.toText(value);
+        }
+    }
+
+    /**
+     * 在SAX回调中透传行处理的异常
+     */
+    private static class HandlerException extends RuntimeException {
+
+        HandlerException(SQLException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized SQLException getCause() {
+            return (SQLException) super.getCause();
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package db.cl.gao.service.importer;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class MappedCsvReaderTest {
+
+    private static final String HEADER = "id,value,note\r\n";
+    private static final List<String> HEADERS = Arrays.asList("id", "value", "note");
+    private static final String FILLER = "8,filler,\"a,b\"\r\n9,\"c\"\"d\",e\r\n10,中文,\"\"\r\n";
+    private static final String[] FIELDS = {
+            "plain", "", "中文", "\"a,b\"", "\"x\r\ny\"", "\"line1\nline2\"", "\"q\"\"q\"", "\"\"", "\"\"\"\"", "\"\r\n\""
+    };
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void splitFallsOnQuotedNewline() throws IOException {
+        String content = findContent("2,\"line1\nline2\",x\r\n",
+                (bytes, bound) -> bytes[bound] == '\n' && bytes[bound - 1] == '1');
+        assertMatchesCommonsCsv(content, new long[]{1, 2, 3, 5, 64});
+    }
+
+    @Test
+    void splitFallsInsideEscapedQuote() throws IOException {
+        String content = findContent("2,\"say \"\"hi\"\", ok\",x\r\n",
+                (bytes, bound) -> bytes[bound - 1] == '"' && bytes[bound] == '"' && bytes[bound + 1] == 'h');
+        assertMatchesCommonsCsv(content, new long[]{1, 2, 3, 5, 64});
+    }
+
+    @Test
+    void splitFallsBetweenCrAndLf() throws IOException {
+        String content = findContent("2,crlf,x\r\n",
+                (bytes, bound) -> bytes[bound - 1] == '\r' && bytes[bound] == '\n');
+        assertMatchesCommonsCsv(content, new long[]{1, 2, 3, 5, 64});
+    }
+
+    @Test
+    void splitFallsOnQuotedCrLf() throws IOException {
+        String content = findContent("2,\"x\r\ny\",x\r\n",
+                (bytes, bound) -> bytes[bound - 1] == '\r' && bytes[bound] == '\n' && bytes[bound - 2] == 'x');
+        assertMatchesCommonsCsv(content, new long[]{1, 2, 3, 5, 64});
+    }
+
+    @Test
+    void matchesCommonsCsvOnMixedContent() throws IOException {
+        Random random = new Random(42);
+        StringBuilder content = new StringBuilder(HEADER);
+        for (int id = 1; id <= 150; id++) {
+            content.append(id);
+            for (int i = 0; i < 2; i++) {
+                content.append(',').append(FIELDS[random.nextInt(FIELDS.length)]);
+            }
+            content.append(random.nextBoolean() ? "\r\n" : "\n");
+        }
+        // 最后一条记录没有换行
+        content.append("151,last,end");
+        Path file = write(content.toString());
+
+        List<List<String>> expected = parseWithCommonsCsv(content.toString());
+        for (int parallelism : new int[]{2, 3, 5, 8}) {
+            for (long windowSize : new long[]{3, 7, 64, 4096}) {
+                assertEquals(expected, readParallel(file, parallelism, windowSize, null),
+                        "parallelism=" + parallelism + ", windowSize=" + windowSize);
+            }
+        }
+    }
+
+    @Test
+    void skipsBomBeforeHeader() throws IOException {
+        String body = HEADER + "1,a,b\r\n2,\"c\r\nd\",e\r\n" + FILLER;
+        Path file = write("﻿" + body);
+        assertEquals(parseWithCommonsCsv(body), readParallel(file, 2, 2, null));
+    }
+
+    /**
+     * 在第一条记录中补齐长度，使两路切分的切分点落在record中满足条件的位置
+     */
+    private String findContent(String record, BoundCondition condition) {
+        IntFunction<String> build = padding -> HEADER + "1," + repeat('p', padding) + ",x\r\n" + record + FILLER;
+        int dataStart = HEADER.length();
+        for (int padding = 0; padding < 1000; padding++) {
+            String content = build.apply(padding);
+            byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+            long bound = dataStart + (long) (bytes.length - dataStart) / 2;
+            if (condition.test(bytes, (int) bound)) {
+                return content;
+            }
+        }
+        return fail("没有找到满足条件的切分点");
+    }
+
+    private void assertMatchesCommonsCsv(String content, long[] windowSizes) throws IOException {
+        Path file = write(content);
+        List<List<String>> expected = parseWithCommonsCsv(content);
+        for (long windowSize : windowSizes) {
+            AtomicInteger ranges = new AtomicInteger();
+            assertEquals(expected, readParallel(file, 2, windowSize, ranges), "windowSize=" + windowSize);
+            assertEquals(2, ranges.get(), "windowSize=" + windowSize);
+        }
+    }
+
+    /**
+     * 最小区段1字节并行读取，按id排序后返回全部记录
+     */
+    private List<List<String>> readParallel(Path file, int parallelism, long windowSize,
+                                            AtomicInteger ranges) throws IOException {
+        List<List<String>> records = Collections.synchronizedList(new ArrayList<>());
+        try (MappedCsvReader reader = new MappedCsvReader(file, 1, windowSize)) {
+            assertEquals(HEADERS, reader.getHeaders());
+            reader.read(parallelism, rangeRecords -> {
+                if (ranges != null) {
+                    ranges.incrementAndGet();
+                }
+                for (CSVRecord record : rangeRecords) {
+                    records.add(record.toList());
+                }
+            });
+        }
+        List<List<String>> sorted = new ArrayList<>(records);
+        sorted.sort(Comparator.comparing(record -> Integer.parseInt(record.get(0))));
+        return sorted;
+    }
+
+    private static List<List<String>> parseWithCommonsCsv(String content) throws IOException {
+        List<List<String>> records = new ArrayList<>();
+        try (CSVParser parser = new CSVParser(new StringReader(content), CSVFormat.DEFAULT)) {
+            for (CSVRecord record : parser) {
+                records.add(record.toList());
+            }
+        }
+        assertEquals(HEADERS, records.remove(0));
+        assertTrue(records.size() > 1);
+        return records;
+    }
+
+    private Path write(String content) throws IOException {
+        Path file = Files.createTempFile(dir, "mapped", ".csv");
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static String repeat(char c, int count) {
+        char[] chars = new char[count];
+        Arrays.fill(chars, c);
+        return new String(chars);
+    }
+
+    @FunctionalInterface
+    private interface BoundCondition {
+        boolean test(byte[] bytes, int bound);
+    }
+}
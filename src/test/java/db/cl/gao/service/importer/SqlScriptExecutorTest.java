@@ -0,0 +1,199 @@
+package db.cl.gao.service.importer;
+
+import db.cl.gao.common.enums.ImportErrorType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SqlScriptExecutorTest {
+
+    private Connection connection;
+    private final List<String> failedSql = new ArrayList<>();
+    private final List<ImportErrorType> failedTypes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE t (id INT PRIMARY KEY, name VARCHAR(5))");
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    void executesBatchOfInserts() throws SQLException {
+        execute(3, "INSERT INTO t VALUES (1, 'a')", "INSERT INTO t VALUES (2, 'b')",
+                "INSERT INTO `t` VALUES (3, 'c')", "INSERT INTO t VALUES (4, 'd')");
+        assertEquals(Collections.emptyList(), failedSql);
+        assertEquals(Arrays.asList(1, 2, 3, 4), ids());
+    }
+
+    @Test
+    void reportsOnlyFailedStatementsInBatch() throws SQLException {
+        connection.setAutoCommit(false);
+        long success = execute(10, "INSERT INTO t VALUES (1, 'a')", "INSERT INTO t VALUES (2, 'b')",
+                "INSERT INTO t VALUES (1, 'dup')", "INSERT INTO t VALUES (3, 'c')",
+                "INSERT INTO t VALUES (4, 'too long')", "INSERT INTO t VALUES (5, 'e')");
+        connection.commit();
+
+        assertEquals(4, success);
+        assertEquals(Arrays.asList("INSERT INTO t VALUES (1, 'dup')", "INSERT INTO t VALUES (4, 'too long')"),
+                failedSql);
+        assertEquals(Arrays.asList(ImportErrorType.DUPLICATE_KEY, ImportErrorType.DATA), failedTypes);
+        assertEquals(Arrays.asList(1, 2, 3, 5), ids());
+    }
+
+    @Test
+    void retriesStatementsSkippedByMultiStatementBatch() throws SQLException {
+        connection = multiStatementBatchConnection(connection);
+        connection.setAutoCommit(false);
+        long success = execute(10, "INSERT INTO t VALUES (1, 'a')", "INSERT INTO t VALUES (2, 'b')",
+                "INSERT INTO t VALUES (1, 'dup')", "INSERT INTO t VALUES (3, 'c')",
+                "INSERT INTO t VALUES (4, 'd')", "INSERT INTO t VALUES (5, 'e')");
+        connection.commit();
+
+        assertEquals(5, success);
+        assertEquals(Collections.singletonList("INSERT INTO t VALUES (1, 'dup')"), failedSql);
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5), ids());
+    }
+
+    @Test
+    void keepsEarlierWorkWhenBatchFails() throws SQLException {
+        connection.setAutoCommit(false);
+        execute(10, "INSERT INTO t VALUES (1, 'a')", "UPDATE t SET name = 'x' WHERE id = 1",
+                "INSERT INTO t VALUES (2, 'b')", "INSERT INTO t VALUES (2, 'dup')");
+        connection.commit();
+
+        assertEquals(Collections.singletonList("INSERT INTO t VALUES (2, 'dup')"), failedSql);
+        assertEquals(Arrays.asList(1, 2), ids());
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT name FROM t WHERE id = 1")) {
+            assertTrue(rs.next());
+            assertEquals("x", rs.getString(1));
+        }
+    }
+
+    @Test
+    void commitsBatchInAutoCommitMode() throws SQLException {
+        long success = execute(10, "INSERT INTO t VALUES (1, 'a')", "INSERT INTO t VALUES (1, 'dup')",
+                "INSERT INTO t VALUES (2, 'b')");
+
+        assertEquals(2, success);
+        assertTrue(connection.getAutoCommit());
+        assertEquals(Collections.singletonList("INSERT INTO t VALUES (1, 'dup')"), failedSql);
+        assertEquals(Arrays.asList(1, 2), ids());
+    }
+
+    @Test
+    void rejectsUnsafeStatements() throws SQLException {
+        long success = execute(10, "INSERT INTO t VALUES (1, 'a')", "DROP TABLE t", "INSERT INTO t VALUES (2, 'b')");
+
+        assertEquals(2, success);
+        assertEquals(Collections.singletonList("DROP TABLE t"), failedSql);
+        assertEquals(Collections.singletonList(ImportErrorType.UNSAFE_SQL), failedTypes);
+        assertEquals(Arrays.asList(1, 2), ids());
+    }
+
+    private long execute(int batchSize, String... statements) throws SQLException {
+        try (SqlScriptExecutor executor = new SqlScriptExecutor(connection, batchSize,
+                sql -> sql.startsWith("DROP"),
+                (sql, type, message) -> {
+                    failedSql.add(sql);
+                    failedTypes.add(type);
+                })) {
+            for (String sql : statements) {
+                executor.execute(sql);
+            }
+            executor.flush();
+            return executor.getSuccessCount();
+        }
+    }
+
+    /**
+     * 模拟Connector/J开启rewriteBatchedStatements时的Statement批次：多条语句一次发送，
+     * 服务端在第一条失败语句处停止，整包的更新计数都标为EXECUTE_FAILED
+     */
+    private static Connection multiStatementBatchConnection(Connection target) {
+        return proxy(Connection.class, (method, args) -> {
+            if (!"createStatement".equals(method.getName()) || args != null) {
+                return method.invoke(target, args);
+            }
+            Statement statement = target.createStatement();
+            List<String> batch = new ArrayList<>();
+            return proxy(Statement.class, (statementMethod, statementArgs) -> {
+                switch (statementMethod.getName()) {
+                    case "addBatch":
+                        batch.add((String) statementArgs[0]);
+                        return null;
+                    case "clearBatch":
+                        batch.clear();
+                        return null;
+                    case "executeBatch":
+                        int[] counts = new int[batch.size()];
+                        for (int i = 0; i < batch.size(); i++) {
+                            try {
+                                counts[i] = statement.executeUpdate(batch.get(i));
+                            } catch (SQLException e) {
+                                Arrays.fill(counts, Statement.EXECUTE_FAILED);
+                                throw new BatchUpdateException(e.getMessage(), e.getSQLState(), e.getErrorCode(),
+                                        counts, e);
+                            }
+                        }
+                        batch.clear();
+                        return counts;
+                    default:
+                        return statementMethod.invoke(statement, statementArgs);
+                }
+            });
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Invocation invocation) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            try {
+                return invocation.invoke(method, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface Invocation {
+        Object invoke(Method method, Object[] args) throws Exception;
+    }
+
+    private List<Integer> ids() throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT id FROM t ORDER BY id")) {
+            while (rs.next()) {
+                ids.add(rs.getInt(1));
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,119 @@
+package db.cl.gao.service.importer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SqlScriptReaderTest {
+
+    @Test
+    void splitsOnDelimiterOnly() throws IOException {
+        assertEquals(Arrays.asList("SELECT 1", "SELECT 2"), readAll("SELECT 1;\n\n  SELECT 2;\n"));
+    }
+
+    @Test
+    void keepsDelimiterInsideQuotes() throws IOException {
+        String script = "INSERT INTO t VALUES ('a;b', \"c;d\");\nSELECT `e;f` FROM t;";
+        assertEquals(Arrays.asList("INSERT INTO t VALUES ('a;b', \"c;d\")", "SELECT `e;f` FROM t"),
+                readAll(script));
+    }
+
+    @Test
+    void keepsEscapedQuotes() throws IOException {
+        String script = "INSERT INTO t VALUES ('it\\'s; ok', 'a''b;c', \"x\\\";y\");SELECT 2;";
+        assertEquals(Arrays.asList("INSERT INTO t VALUES ('it\\'s; ok', 'a''b;c', \"x\\\";y\")", "SELECT 2"),
+                readAll(script));
+    }
+
+    @Test
+    void backslashDoesNotEscapeInsideBackticks() throws IOException {
+        assertEquals(Arrays.asList("SELECT `a\\`", "SELECT 2"), readAll("SELECT `a\\`;SELECT 2;"));
+    }
+
+    @Test
+    void dropsCommentsContainingDelimiter() throws IOException {
+        String script = "-- header; comment\n"
+                + "SELECT 1 -- trailing; comment\n"
+                + ", 2 # hash; comment\n"
+                + "FROM /* block; comment */ t;\n"
+                + "/* only a comment; */\n"
+                + "SELECT 3;";
+        assertEquals(Arrays.asList("SELECT 1 \n, 2 \nFROM   t", "SELECT 3"), readAll(script));
+    }
+
+    @Test
+    void doubleDashWithoutSpaceIsNotComment() throws IOException {
+        assertEquals(Collections.singletonList("SELECT 1--1"), readAll("SELECT 1--1;"));
+    }
+
+    @Test
+    void keepsVersionCommentsAndHints() throws IOException {
+        String script = "/*!40101 SET NAMES utf8mb4 */;\nSELECT /*+ MAX_EXECUTION_TIME(1000) */ 1;";
+        assertEquals(Arrays.asList("/*!40101 SET NAMES utf8mb4 */", "SELECT /*+ MAX_EXECUTION_TIME(1000) */ 1"),
+                readAll(script));
+    }
+
+    @Test
+    void switchesDelimiterWithDelimiterCommand() throws IOException {
+        String script = "DELIMITER //\n"
+                + "CREATE PROCEDURE p()\n"
+                + "BEGIN\n"
+                + "  SELECT 1;\n"
+                + "  SELECT ';';\n"
+                + "END//\n"
+                + "delimiter ;\n"
+                + "CALL p();\n";
+        assertEquals(Arrays.asList("CREATE PROCEDURE p()\nBEGIN\n  SELECT 1;\n  SELECT ';';\nEND", "CALL p()"),
+                readAll(script));
+    }
+
+    @Test
+    void returnsUnterminatedLastStatement() throws IOException {
+        assertEquals(Arrays.asList("SELECT 1", "SELECT 2"), readAll("SELECT 1;\nSELECT 2\n"));
+    }
+
+    @Test
+    void returnsUnterminatedQuoteAtEnd() throws IOException {
+        assertEquals(Arrays.asList("SELECT 1", "SELECT 'abc;"), readAll("SELECT 1; SELECT 'abc;"));
+    }
+
+    @Test
+    void reportsStatementLine() throws IOException {
+        try (SqlScriptReader reader = new SqlScriptReader(new StringReader("SELECT 1;\n-- c\n\nSELECT\n2;"))) {
+            assertEquals("SELECT 1", reader.next());
+            assertEquals(1, reader.getStatementLine());
+            assertEquals("SELECT\n2", reader.next());
+            assertEquals(4, reader.getStatementLine());
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void readsStatementLongerThanBuffer() throws IOException {
+        StringBuilder value = new StringBuilder();
+        for (int i = 0; i < 20000; i++) {
+            value.append("a;b'' ");
+        }
+        String insert = "INSERT INTO t VALUES ('" + value + "')";
+        assertEquals(Arrays.asList(insert, "SELECT 2"), readAll(insert + ";SELECT 2;"));
+    }
+
+    private static List<String> readAll(String script) throws IOException {
+        List<String> statements = new ArrayList<>();
+        try (SqlScriptReader reader = new SqlScriptReader(new StringReader(script))) {
+            String sql;
+            while ((sql = reader.next()) != null) {
+                statements.add(sql);
+            }
+        }
+        return statements;
+    }
+}